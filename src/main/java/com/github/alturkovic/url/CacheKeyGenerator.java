@@ -0,0 +1,328 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import java.util.Arrays;
+
+/**
+ * Generate cache keys for urls, removing ignored query parameters and sorting the rest by name.
+ * <p>
+ * Ignored parameter names are stored in an open-addressing hash set and ignored prefixes, e.g. 'utm_', in a trie,
+ * so checking a parameter costs the same regardless of the number of registered rules. Parameters are filtered while
+ * scanning the query and then merge sorted, the key is written directly from the url, or hashed without creating it.
+ * <p>
+ * Parameter names are matched as they appear in the url, without percent-decoding them, so 'utm%5Fsource' is not
+ * ignored by a 'utm_source' rule. Normalize urls using {@link NormalizationStep#DECODE_UNRESERVED_CHARACTERS}
+ * beforehand to match encoded names as well.
+ * <p>
+ * The key consists of the url up to the query, followed by the remaining parameters in stable name order.
+ * The fragment is not included. Urls can be normalized beforehand using {@link UrlNormalizer}.
+ * <p>
+ * Registration is not thread-safe, generating keys using a fully registered generator is.
+ */
+public class CacheKeyGenerator {
+    private static final int[] NO_PARAMETERS = {0};
+
+    private String[] names = new String[16];
+    private int[] hashes = new int[16];
+    private int nameCount;
+    private final PrefixNode prefixes = new PrefixNode();
+
+    /**
+     * Ignore parameters named {@code name}.
+     *
+     * @param name of the parameters to ignore, case-sensitive and matched without percent-decoding
+     * @return this generator
+     */
+    public CacheKeyGenerator ignoreParameter(String name) {
+        if (StringUtils.isBlank(name)) {
+            throw new IllegalArgumentException("Parameter name cannot be undefined");
+        }
+
+        if (findName(name, 0, name.length()) == -1) {
+            if ((nameCount + 1) * 2 > names.length) {
+                resize();
+            }
+            insertName(name, hash(name, 0, name.length()));
+            nameCount++;
+        }
+        return this;
+    }
+
+    /**
+     * Ignore parameters whose name starts with {@code prefix}.
+     *
+     * @param prefix of the parameter names to ignore, case-sensitive and matched without percent-decoding
+     * @return this generator
+     */
+    public CacheKeyGenerator ignoreParameterPrefix(String prefix) {
+        if (StringUtils.isBlank(prefix)) {
+            throw new IllegalArgumentException("Parameter prefix cannot be undefined");
+        }
+
+        PrefixNode node = prefixes;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.child(prefix.charAt(i), true);
+        }
+        node.terminal = true;
+        return this;
+    }
+
+    /**
+     * Ignore common marketing and click tracking parameters, e.g. 'utm_source', 'fbclid' or 'gclid'.
+     *
+     * @return this generator
+     */
+    public CacheKeyGenerator ignoreTrackingParameters() {
+        ignoreParameterPrefix("utm_");
+        for (String name : new String[]{"fbclid", "gclid", "gclsrc", "dclid", "gbraid", "wbraid", "msclkid", "yclid",
+            "twclid", "ttclid", "igshid", "mc_cid", "mc_eid", "_ga", "_gl", "_hsenc", "_hsmi", "mkt_tok", "oly_anon_id",
+            "oly_enc_id", "vero_id", "rb_clickid", "s_cid"}) {
+            ignoreParameter(name);
+        }
+        return this;
+    }
+
+    /**
+     * Check if parameters named {@code name} are ignored.
+     *
+     * @param name of the parameter
+     * @return {@code true} if ignored, {@code false} otherwise
+     */
+    public boolean isIgnored(CharSequence name) {
+        return isIgnored(name, 0, name.length());
+    }
+
+    /**
+     * Generate the cache key of {@code url}.
+     *
+     * @param url to generate the key for
+     * @return cache key
+     */
+    public String key(CharSequence url) {
+        return key(url, new StringBuilder(url.length())).toString();
+    }
+
+    /**
+     * Generate the cache key of {@code url}, appending it to {@code output}.
+     *
+     * @param url    to generate the key for
+     * @param output to append the key to
+     * @return {@code output}
+     */
+    public StringBuilder key(CharSequence url, StringBuilder output) {
+        int queryStart = indexOf(url, '?', 0);
+        int fragmentStart = indexOf(url, '#', 0);
+        if (queryStart > fragmentStart) {
+            queryStart = fragmentStart;
+        }
+
+        output.append(url, 0, queryStart);
+        if (queryStart == fragmentStart) {
+            return output;
+        }
+
+        int[] bounds = parameters(url, queryStart + 1, fragmentStart);
+        int count = bounds[bounds.length - 1];
+        for (int i = 0; i < count; i++) {
+            output.append(i == 0 ? '?' : '&').append(url, bounds[i * 2], bounds[i * 2 + 1]);
+        }
+        return output;
+    }
+
+    /**
+     * Hash the cache key of {@code url} without creating it.
+     * <p>
+     * The hash is the 64-bit FNV-1a hash of the key characters, so it is stable across processes
+     * and equal to hashing the result of {@link #key(CharSequence)}.
+     *
+     * @param url to hash the key of
+     * @return key hash
+     */
+    public long hash(CharSequence url) {
+        int queryStart = indexOf(url, '?', 0);
+        int fragmentStart = indexOf(url, '#', 0);
+        if (queryStart > fragmentStart) {
+            queryStart = fragmentStart;
+        }
+
+        long hash = Fnv1a.hashChars(Fnv1a.OFFSET_BASIS, url, 0, queryStart);
+        if (queryStart == fragmentStart) {
+            return hash;
+        }
+
+        int[] bounds = parameters(url, queryStart + 1, fragmentStart);
+        int count = bounds[bounds.length - 1];
+        for (int i = 0; i < count; i++) {
+            hash = Fnv1a.hash(hash, i == 0 ? '?' : '&');
+            hash = Fnv1a.hashChars(hash, url, bounds[i * 2], bounds[i * 2 + 1]);
+        }
+        return hash;
+    }
+
+    // bounds of the kept parameters in sorted order, followed by their count
+    private int[] parameters(CharSequence url, int start, int end) {
+        int[] bounds = null;
+        int count = 0;
+
+        int parameterStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && url.charAt(i) != '&') {
+                continue;
+            }
+
+            if (i > parameterStart && !isIgnored(url, parameterStart, ParameterSort.nameEnd(url, parameterStart, i))) {
+                if (bounds == null) {
+                    bounds = new int[9];
+                } else if ((count + 1) * 2 + 1 > bounds.length) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2 + 1);
+                }
+
+                bounds[count * 2] = parameterStart;
+                bounds[count * 2 + 1] = i;
+                count++;
+            }
+            parameterStart = i + 1;
+        }
+
+        if (bounds == null) {
+            return NO_PARAMETERS;
+        }
+        ParameterSort.sort(url, bounds, count);
+        bounds[bounds.length - 1] = count;
+        return bounds;
+    }
+
+    private boolean isIgnored(CharSequence url, int start, int end) {
+        if (nameCount > 0 && findName(url, start, end) != -1) {
+            return true;
+        }
+
+        PrefixNode node = prefixes;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.child(url.charAt(i), false);
+            if (node != null && node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int findName(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        int mask = names.length - 1;
+        for (int slot = hash & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && regionEquals(names[slot], text, start, end)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertName(String name, int hash) {
+        int mask = names.length - 1;
+        int slot = hash & mask;
+        while (names[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        names[slot] = name;
+        hashes[slot] = hash;
+    }
+
+    private void resize() {
+        String[] oldNames = names;
+        int[] oldHashes = hashes;
+        names = new String[oldNames.length * 2];
+        hashes = new int[oldNames.length * 2];
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                insertName(oldNames[i], oldHashes[i]);
+            }
+        }
+    }
+
+    private static int indexOf(CharSequence url, char c, int start) {
+        for (int i = start; i < url.length(); i++) {
+            if (url.charAt(i) == c) {
+                return i;
+            }
+        }
+        return url.length();
+    }
+
+    private static boolean regionEquals(String name, CharSequence text, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (name.charAt(i - start) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class PrefixNode {
+        private char[] labels = new char[0];
+        private PrefixNode[] children = new PrefixNode[0];
+        private boolean terminal;
+
+        PrefixNode child(char label, boolean create) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            if (!create) {
+                return null;
+            }
+
+            int insertion = -index - 1;
+            labels = insert(labels, insertion, label);
+            PrefixNode child = new PrefixNode();
+            PrefixNode[] grown = new PrefixNode[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertion);
+            System.arraycopy(children, insertion, grown, insertion + 1, children.length - insertion);
+            grown[insertion] = child;
+            children = grown;
+            return child;
+        }
+
+        private static char[] insert(char[] labels, int index, char label) {
+            char[] grown = new char[labels.length + 1];
+            System.arraycopy(labels, 0, grown, 0, index);
+            System.arraycopy(labels, index, grown, index + 1, labels.length - index);
+            grown[index] = label;
+            return grown;
+        }
+    }
+}
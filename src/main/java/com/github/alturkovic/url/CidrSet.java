@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Immutable set of IP address ranges in CIDR notation, e.g. '10.0.0.0/8' or 'fc00::/7'.
+ * <p>
+ * Ranges are merged into a sorted array of disjoint intervals, so membership checks cost a binary search
+ * regardless of how many ranges were given and checking a host does not allocate.
+ * IPv4 ranges also match IPv4-mapped IPv6 addresses.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class CidrSet {
+    // not globally reachable entries of the IANA IPv4 and IPv6 special-purpose address registries and multicast
+    private static final CidrSet NON_PUBLIC = of(
+        "0.0.0.0/8", "10.0.0.0/8", "100.64.0.0/10", "127.0.0.0/8", "169.254.0.0/16", "172.16.0.0/12",
+        "192.0.0.0/24", "192.0.2.0/24", "192.168.0.0/16", "198.18.0.0/15", "198.51.100.0/24", "203.0.113.0/24",
+        "224.0.0.0/4", "240.0.0.0/4",
+        "::/96", "64:ff9b:1::/48", "100::/64", "2001::/23", "2001:db8::/32", "3fff::/20", "5f00::/16",
+        "fc00::/7", "fe80::/10", "ff00::/8"
+    ).withEmbeddedIpv4();
+
+    private static final long NAT64_HIGH = 0x0064ff9b00000000L;
+    private static final long IPV4_MAPPED_PREFIX = 0xffffL << 32;
+
+    private final long[] startHigh;
+    private final long[] startLow;
+    private final long[] endHigh;
+    private final long[] endLow;
+    private final boolean embeddedIpv4;
+    private final IpAddress.Consumer<Boolean> containsAddress = (high, low, ipv4) -> contains(high, low);
+
+    private CidrSet(long[] startHigh, long[] startLow, long[] endHigh, long[] endLow, boolean embeddedIpv4) {
+        this.startHigh = startHigh;
+        this.startLow = startLow;
+        this.endHigh = endHigh;
+        this.endLow = endLow;
+        this.embeddedIpv4 = embeddedIpv4;
+    }
+
+    /**
+     * Create a set of {@code ranges}.
+     *
+     * @param ranges in CIDR notation, a single address is treated as a range containing only that address
+     * @return range set
+     * @throws IllegalArgumentException if any of the ranges is malformed
+     */
+    public static CidrSet of(String... ranges) {
+        return of(Arrays.asList(ranges));
+    }
+
+    /**
+     * Create a set of {@code ranges}.
+     *
+     * @param ranges in CIDR notation, a single address is treated as a range containing only that address
+     * @return range set
+     * @throws IllegalArgumentException if any of the ranges is malformed
+     */
+    public static CidrSet of(Collection<String> ranges) {
+        long[][] intervals = new long[ranges.size()][];
+        int size = 0;
+        for (String range : ranges) {
+            intervals[size++] = parseRange(range);
+        }
+
+        Arrays.sort(intervals, Comparator.<long[]>comparingLong(interval -> interval[0] ^ Long.MIN_VALUE)
+            .thenComparingLong(interval -> interval[1] ^ Long.MIN_VALUE));
+
+        long[] startHigh = new long[size];
+        long[] startLow = new long[size];
+        long[] endHigh = new long[size];
+        long[] endLow = new long[size];
+
+        int merged = -1;
+        for (long[] interval : intervals) {
+            if (merged >= 0 && !isAfterEnd(interval[0], interval[1], endHigh[merged], endLow[merged])) {
+                if (compare(interval[2], interval[3], endHigh[merged], endLow[merged]) > 0) {
+                    endHigh[merged] = interval[2];
+                    endLow[merged] = interval[3];
+                }
+                continue;
+            }
+
+            merged++;
+            startHigh[merged] = interval[0];
+            startLow[merged] = interval[1];
+            endHigh[merged] = interval[2];
+            endLow[merged] = interval[3];
+        }
+
+        int length = merged + 1;
+        return new CidrSet(Arrays.copyOf(startHigh, length), Arrays.copyOf(startLow, length),
+            Arrays.copyOf(endHigh, length), Arrays.copyOf(endLow, length), false);
+    }
+
+    /**
+     * Ranges that are not publicly routable: private, loopback, link-local, shared, benchmarking, documentation,
+     * multicast and reserved networks of both IP versions. Useful to reject urls targeting internal services.
+     * <p>
+     * IPv6 addresses embedding an IPv4 address are checked by that address as well: NAT64 addresses
+     * ({@code 64:ff9b::/96}) and 6to4 addresses ({@code 2002::/16}) are non-public if the embedded IPv4 address is,
+     * IPv4-compatible addresses ({@code ::/96}) are always non-public.
+     *
+     * @return non-public ranges
+     */
+    public static CidrSet nonPublicNetworks() {
+        return NON_PUBLIC;
+    }
+
+    /**
+     * Get the number of disjoint ranges after merging.
+     *
+     * @return range count
+     */
+    public int size() {
+        return startHigh.length;
+    }
+
+    /**
+     * Check if the address is in any of the ranges.
+     *
+     * @param high bits of the address
+     * @param low  bits of the address
+     * @return {@code true} if contained, {@code false} otherwise
+     */
+    public boolean contains(long high, long low) {
+        if (containsRange(high, low)) {
+            return true;
+        }
+
+        if (embeddedIpv4) {
+            if (high == NAT64_HIGH && (low >>> 32) == 0) {
+                return containsRange(0, IPV4_MAPPED_PREFIX | low);
+            }
+            if ((high >>> 48) == 0x2002) {
+                return containsRange(0, IPV4_MAPPED_PREFIX | ((high >>> 16) & 0xffffffffL));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if the {@code address} is in any of the ranges.
+     *
+     * @param address to check
+     * @return {@code true} if contained, {@code false} otherwise
+     */
+    public boolean contains(IpAddress address) {
+        return contains(address.getHigh(), address.getLow());
+    }
+
+    /**
+     * Check if the {@code host} is an IP address in any of the ranges.
+     *
+     * @param host to check, e.g. '127.0.0.1' or '[::1]'
+     * @return {@code true} if contained, {@code false} if not contained or not an IP address
+     */
+    public boolean contains(CharSequence host) {
+        return IpAddress.parse(host, containsAddress) == Boolean.TRUE;
+    }
+
+    /**
+     * Check if the host of the {@code url} is an IP address in any of the ranges.
+     *
+     * @param url to check
+     * @return {@code true} if contained, {@code false} if not contained or not an IP address
+     */
+    public boolean contains(UrlParser url) {
+        return contains(url.getHost());
+    }
+
+    private CidrSet withEmbeddedIpv4() {
+        return new CidrSet(startHigh, startLow, endHigh, endLow, true);
+    }
+
+    private boolean containsRange(long high, long low) {
+        int lower = 0;
+        int upper = startHigh.length - 1;
+        int candidate = -1;
+        while (lower <= upper) {
+            int middle = (lower + upper) >>> 1;
+            if (compare(startHigh[middle], startLow[middle], high, low) <= 0) {
+                candidate = middle;
+                lower = middle + 1;
+            } else {
+                upper = middle - 1;
+            }
+        }
+        return candidate != -1 && compare(high, low, endHigh[candidate], endLow[candidate]) <= 0;
+    }
+
+    private static long[] parseRange(String range) {
+        if (range == null) {
+            throw new IllegalArgumentException("Range cannot be undefined");
+        }
+
+        int slashIndex = range.indexOf('/');
+        String address = slashIndex == -1 ? range : range.substring(0, slashIndex);
+        long[] interval = IpAddress.parse(address, (high, low, ipv4) -> {
+            int bits = ipv4 ? 32 : 128;
+            int prefix = bits;
+            if (slashIndex != -1) {
+                try {
+                    prefix = Integer.parseInt(range.substring(slashIndex + 1));
+                } catch (NumberFormatException e) {
+                    prefix = -1;
+                }
+            }
+            if (prefix < 0 || prefix > bits) {
+                return null;
+            }
+
+            int hostBits = bits - prefix;
+            long highMask = hostBits > 64 ? (hostBits == 128 ? -1L : (1L << (hostBits - 64)) - 1) : 0;
+            long lowMask = hostBits >= 64 ? -1L : (1L << hostBits) - 1;
+            return new long[]{high & ~highMask, low & ~lowMask, high | highMask, low | lowMask};
+        });
+
+        if (interval == null) {
+            throw new IllegalArgumentException("Invalid CIDR range: " + range);
+        }
+        return interval;
+    }
+
+    private static boolean isAfterEnd(long high, long low, long endHigh, long endLow) {
+        // adjacent ranges are merged as well, unless the end is the last address
+        if (endLow == -1L) {
+            return endHigh != -1L && compare(high, low, endHigh + 1, 0) > 0;
+        }
+        return compare(high, low, endHigh, endLow + 1) > 0;
+    }
+
+    private static int compare(long firstHigh, long firstLow, long secondHigh, long secondLow) {
+        int result = Long.compareUnsigned(firstHigh, secondHigh);
+        return result != 0 ? result : Long.compareUnsigned(firstLow, secondLow);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+/**
+ * 64-bit FNV-1a hashing of url text.
+ * <p>
+ * Used where hashes must be stable across processes and JVM versions, unlike {@link String#hashCode()} which is
+ * not specified for that purpose. Hashes are built incrementally, starting from {@link #OFFSET_BASIS}.
+ */
+final class Fnv1a {
+    static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private Fnv1a() {
+    }
+
+    static long hash(long hash, int octet) {
+        return (hash ^ octet) * PRIME;
+    }
+
+    /**
+     * Hashes each char of the text as a single value.
+     */
+    static long hashChars(long hash, CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash = hash(hash, text.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes the UTF-8 encoding of the lowercased text.
+     */
+    static long hashLowercaseUtf8(long hash, CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+                hash = hash(hash, c);
+                continue;
+            }
+
+            int codePoint = Character.toLowerCase((int) c);
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                codePoint = Character.toLowerCase(Character.toCodePoint(c, text.charAt(++i)));
+            }
+
+            if (codePoint < 0x800) {
+                hash = hash(hash, 0xc0 | codePoint >>> 6);
+            } else {
+                if (codePoint < 0x10000) {
+                    hash = hash(hash, 0xe0 | codePoint >>> 12);
+                } else {
+                    hash = hash(hash, 0xf0 | codePoint >>> 18);
+                    hash = hash(hash, 0x80 | (codePoint >>> 12) & 0x3f);
+                }
+                hash = hash(hash, 0x80 | (codePoint >>> 6) & 0x3f);
+            }
+            hash = hash(hash, 0x80 | codePoint & 0x3f);
+        }
+        return hash;
+    }
+}
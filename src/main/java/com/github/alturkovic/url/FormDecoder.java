@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Streaming decoder of 'application/x-www-form-urlencoded' content, e.g. request bodies like 'a=1&amp;b=hello+world'.
+ * <p>
+ * Content is read through a fixed-size buffer and every decoded name-value pair is passed to a callback as soon as
+ * it is complete, so memory use depends only on the buffer size and the longest pair, not on the content length.
+ * Pairs and percent-encoded octets can be split between reads. '+' is decoded as a space, names and values are
+ * decoded as UTF-8 and invalid escapes are kept as they are. Empty pairs are skipped and names without '=' have a
+ * {@code null} value, like in {@link ParameterBuilder}.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public class FormDecoder {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int DEFAULT_MAXIMUM_PAIR_LENGTH = 1024 * 1024;
+    private static final int INITIAL_PAIR_CAPACITY = 256;
+
+    private final int bufferSize;
+    private final int maximumPairLength;
+
+    /**
+     * Create a decoder reading 8 KiB at a time and accepting pairs up to 1 MiB.
+     */
+    public FormDecoder() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAXIMUM_PAIR_LENGTH);
+    }
+
+    /**
+     * Create a new decoder.
+     *
+     * @param bufferSize        number of bytes to read at a time
+     * @param maximumPairLength maximum number of decoded bytes in a single name-value pair
+     */
+    public FormDecoder(int bufferSize, int maximumPairLength) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        if (maximumPairLength <= 0) {
+            throw new IllegalArgumentException("Maximum pair length must be positive: " + maximumPairLength);
+        }
+
+        this.bufferSize = bufferSize;
+        this.maximumPairLength = maximumPairLength;
+    }
+
+    /**
+     * Decode the content of {@code input}, passing each pair to {@code consumer}. The stream is not closed.
+     *
+     * @param input    to read the content from
+     * @param consumer of the decoded name and value
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if a pair is longer than the maximum pair length
+     */
+    public void decode(InputStream input, BiConsumer<String, String> consumer) throws IOException {
+        Decoding decoding = new Decoding(consumer);
+        byte[] buffer = new byte[bufferSize];
+
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            decoding.accept(buffer, 0, read);
+        }
+        decoding.finish();
+    }
+
+    /**
+     * Decode the content of {@code channel}, passing each pair to {@code consumer}. The channel is not closed.
+     *
+     * @param channel  to read the content from
+     * @param consumer of the decoded name and value
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if a pair is longer than the maximum pair length
+     */
+    public void decode(ReadableByteChannel channel, BiConsumer<String, String> consumer) throws IOException {
+        Decoding decoding = new Decoding(consumer);
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            decoding.accept(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.clear();
+        }
+        decoding.finish();
+    }
+
+    private final class Decoding {
+        private final BiConsumer<String, String> consumer;
+        private byte[] pair = new byte[Math.min(INITIAL_PAIR_CAPACITY, maximumPairLength)];
+        private int length;
+        private int nameLength = -1;
+
+        // pending escape: 0 outside of an escape, otherwise the number of read characters including '%'
+        private int escapeLength;
+        private byte escapeHigh;
+
+        Decoding(BiConsumer<String, String> consumer) {
+            this.consumer = consumer;
+        }
+
+        void accept(byte[] bytes, int offset, int count) {
+            for (int i = offset; i < offset + count; i++) {
+                accept(bytes[i]);
+            }
+        }
+
+        void finish() {
+            flushEscape();
+            emit();
+        }
+
+        private void accept(byte b) {
+            if (escapeLength > 0) {
+                int digit = Character.digit((char) (b & 0xff), 16);
+                if (digit != -1) {
+                    if (escapeLength == 1) {
+                        escapeHigh = b;
+                        escapeLength = 2;
+                    } else {
+                        escapeLength = 0;
+                        append((byte) (Character.digit((char) escapeHigh, 16) << 4 | digit));
+                    }
+                    return;
+                }
+                flushEscape();
+            }
+
+            switch (b) {
+                case '&':
+                    emit();
+                    break;
+                case '=':
+                    if (nameLength == -1) {
+                        nameLength = length;
+                    } else {
+                        append(b);
+                    }
+                    break;
+                case '+':
+                    append((byte) ' ');
+                    break;
+                case '%':
+                    escapeLength = 1;
+                    break;
+                default:
+                    append(b);
+            }
+        }
+
+        // invalid or incomplete escapes are kept as they are
+        private void flushEscape() {
+            if (escapeLength > 0) {
+                append((byte) '%');
+                if (escapeLength == 2) {
+                    append(escapeHigh);
+                }
+                escapeLength = 0;
+            }
+        }
+
+        private void append(byte b) {
+            if (length == pair.length) {
+                if (length == maximumPairLength) {
+                    throw new IllegalArgumentException("Form pair exceeds maximum length: " + maximumPairLength);
+                }
+                pair = Arrays.copyOf(pair, (int) Math.min((long) length * 2, maximumPairLength));
+            }
+            pair[length++] = b;
+        }
+
+        private void emit() {
+            if (length > 0 || nameLength != -1) {
+                if (nameLength == -1) {
+                    consumer.accept(new String(pair, 0, length, UTF_8), null);
+                } else {
+                    consumer.accept(new String(pair, 0, nameLength, UTF_8), new String(pair, nameLength, length - nameLength, UTF_8));
+                }
+            }
+            length = 0;
+            nameLength = -1;
+        }
+    }
+}
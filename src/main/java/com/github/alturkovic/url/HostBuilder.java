@@ -24,8 +24,26 @@
 
 package com.github.alturkovic.url;
 
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Used to build the URL host.
+ * <p>
+ * The host is stored as boundaries of its '.' separated labels, so label operations do not create intermediate
+ * strings and the host is formatted only once when built.
+ */
 public class HostBuilder {
-    private String host;
+    private static final String WWW = "www";
+
+    private String source;
+    private String built;
+
+    // label i is texts[i].substring(starts[i], ends[i]), count is -1 until the source is split
+    private String[] texts = new String[4];
+    private int[] starts = new int[4];
+    private int[] ends = new int[4];
+    private int count;
 
     /**
      * Initialize a new builder from {@code host}.
@@ -50,7 +68,9 @@ public class HostBuilder {
             throw new IllegalArgumentException("Host cannot be undefined");
         }
 
-        this.host = host;
+        this.source = host;
+        this.built = host;
+        this.count = -1;
         return this;
     }
 
@@ -65,36 +85,229 @@ public class HostBuilder {
             return this;
         }
 
-        boolean includesWww = includesWww();
-        if (includesWww) {
-            withoutWww();
+        int index = includesWww() ? 1 : 0;
+        int labelStart = 0;
+        for (int i = 0; i <= subdomain.length(); i++) {
+            if (i == subdomain.length() || subdomain.charAt(i) == '.') {
+                insert(index++, subdomain, labelStart, i);
+                labelStart = i + 1;
+            }
         }
-
-        this.host = subdomain + "." + host;
-
-        if (includesWww) {
-            withWww();
-        }
-
-        return this;
+        return modified();
     }
 
     /**
      * Include 'www.' in the hostname.
+     * <p>
+     * Hosts which already start with 'www.' in any case are left unchanged.
      *
      * @return this builder
      */
     public HostBuilder withWww() {
-        return host(WwwPrefix.INCLUDE.normalizeHost(host));
+        if (includesWww()) {
+            return this;
+        }
+
+        insert(0, WWW, 0, WWW.length());
+        return modified();
     }
 
     /**
      * Exclude 'www.' from the hostname.
+     * <p>
+     * The first label is compared ignoring case. Hosts consisting only of 'www' and a top-level domain, e.g. 'www.com',
+     * are left unchanged.
      *
      * @return this builder
      */
     public HostBuilder withoutWww() {
-        return host(WwwPrefix.EXCLUDE.normalizeHost(host));
+        if (!includesWww() || count < 3) {
+            return this;
+        }
+
+        delete(0);
+        return modified();
+    }
+
+    /**
+     * Get the number of '.' separated labels in the host.
+     *
+     * @return label count
+     */
+    public int labelCount() {
+        return labels();
+    }
+
+    /**
+     * Get the indexed label, counting from the left, e.g. label 0 of 'www.example.com' is 'www'.
+     *
+     * @param index of the label
+     * @return label
+     * @throws IndexOutOfBoundsException if there is no label with {@code index}
+     */
+    public String label(int index) {
+        checkIndex(index, labels());
+        return texts[index].substring(starts[index], ends[index]);
+    }
+
+    /**
+     * Append {@code label} as the rightmost label of the host.
+     *
+     * @param label to add
+     * @return this builder
+     * @throws IllegalArgumentException if {@code label} is blank or contains '.'
+     */
+    public HostBuilder addLabel(String label) {
+        return addLabel(labels(), label);
+    }
+
+    /**
+     * Insert {@code label} at {@code index}, shifting the following labels to the right.
+     *
+     * @param index to insert the label at
+     * @param label to add
+     * @return this builder
+     * @throws IllegalArgumentException  if {@code label} is blank or contains '.'
+     * @throws IndexOutOfBoundsException if {@code index} is greater than the label count
+     */
+    public HostBuilder addLabel(int index, String label) {
+        checkLabel(label);
+        checkIndex(index, labels() + 1);
+        insert(index, label, 0, label.length());
+        return modified();
+    }
+
+    /**
+     * Remove the indexed label.
+     *
+     * @param index of the label
+     * @return this builder
+     * @throws IllegalArgumentException  if it is the only label
+     * @throws IndexOutOfBoundsException if there is no label with {@code index}
+     */
+    public HostBuilder removeLabel(int index) {
+        checkIndex(index, labels());
+        if (count == 1) {
+            throw new IllegalArgumentException("Host cannot be undefined");
+        }
+
+        delete(index);
+        return modified();
+    }
+
+    /**
+     * Replace the indexed label with {@code label}.
+     *
+     * @param index of the label
+     * @param label to set
+     * @return this builder
+     * @throws IllegalArgumentException  if {@code label} is blank or contains '.'
+     * @throws IndexOutOfBoundsException if there is no label with {@code index}
+     */
+    public HostBuilder replaceLabel(int index, String label) {
+        checkLabel(label);
+        checkIndex(index, labels());
+        texts[index] = label;
+        starts[index] = 0;
+        ends[index] = label.length();
+        return modified();
+    }
+
+    /**
+     * Convert the host to its ASCII form, encoding Unicode labels using punycode, e.g. 'bücher.de' to 'xn--bcher-kva.de'.
+     * <p>
+     * Conversions are cached, so repeated hosts are converted only once.
+     *
+     * @return this builder
+     * @throws IllegalArgumentException if the host is not a valid internationalized domain name
+     */
+    public HostBuilder toAscii() {
+        String converted = IdnConverter.toAscii(build());
+        return converted.equals(built) ? this : host(converted);
+    }
+
+    /**
+     * Convert the host to its Unicode form, decoding punycode labels, e.g. 'xn--bcher-kva.de' to 'bücher.de'.
+     * <p>
+     * Conversions are cached, so repeated hosts are converted only once.
+     *
+     * @return this builder
+     */
+    public HostBuilder toUnicode() {
+        String converted = IdnConverter.toUnicode(build());
+        return converted.equals(built) ? this : host(converted);
+    }
+
+    /**
+     * Check if the host is an IPv4 or IPv6 address literal.
+     *
+     * @return {@code true} if the host is an IP address, {@code false} if it is a domain name
+     */
+    public boolean isIpAddress() {
+        return IpAddress.isIpAddress(build());
+    }
+
+    /**
+     * Get the IP address of the host.
+     *
+     * @return IP address, empty if the host is a domain name
+     * @see IpAddress#parse(CharSequence)
+     */
+    public Optional<IpAddress> getIpAddress() {
+        return IpAddress.parse(build());
+    }
+
+    /**
+     * Convert an IP address host to its canonical form, e.g. '0x7f.1' to '127.0.0.1' or '[2001:DB8:0:0::1]' to '[2001:db8::1]'.
+     * <p>
+     * Domain names are left unchanged.
+     *
+     * @return this builder
+     */
+    public HostBuilder canonicalizeIpAddress() {
+        String host = build();
+        String canonical = IpAddress.parse(host, (high, low, ipv4) -> new IpAddress(high, low, ipv4).toHost());
+        return canonical == null || canonical.equals(host) ? this : host(canonical);
+    }
+
+    /**
+     * Get the public suffix of the host using the bundled <a href="https://publicsuffix.org/">Public Suffix List</a>,
+     * e.g. 'co.uk' for 'news.bbc.co.uk'.
+     * <p>
+     * Hosts not matching any rule use their last label as the public suffix.
+     *
+     * @return public suffix, empty if the host is an IP address
+     */
+    public Optional<String> getPublicSuffix() {
+        return Optional.ofNullable(PublicSuffixList.getDefault().getPublicSuffix(build()));
+    }
+
+    /**
+     * Get the registrable domain of the host, i.e. its public suffix and one more label,
+     * e.g. 'bbc.co.uk' for 'news.bbc.co.uk'.
+     *
+     * @return registrable domain, empty if the host is a public suffix or an IP address
+     */
+    public Optional<String> getRegistrableDomain() {
+        return Optional.ofNullable(PublicSuffixList.getDefault().getRegistrableDomain(build()));
+    }
+
+    /**
+     * Create an independent copy of this builder.
+     *
+     * @return builder copy
+     */
+    public HostBuilder copy() {
+        HostBuilder copy = new HostBuilder();
+        copy.source = source;
+        copy.built = built;
+        copy.count = count;
+        if (count > 0) {
+            copy.texts = Arrays.copyOf(texts, count);
+            copy.starts = Arrays.copyOf(starts, count);
+            copy.ends = Arrays.copyOf(ends, count);
+        }
+        return copy;
     }
 
     /**
@@ -103,10 +316,86 @@ public class HostBuilder {
      * @return formatted host
      */
     public String build() {
-        return host;
+        if (built == null && count > 0) {
+            int length = count - 1;
+            for (int i = 0; i < count; i++) {
+                length += ends[i] - starts[i];
+            }
+
+            StringBuilder host = new StringBuilder(length);
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    host.append('.');
+                }
+                host.append(texts[i], starts[i], ends[i]);
+            }
+            built = host.toString();
+        }
+        return built;
+    }
+
+    void intern(UrlInterner interner) {
+        if (source != null) {
+            host(interner.intern(UrlInterner.Component.HOST, build()));
+        }
+    }
+
+    private HostBuilder modified() {
+        built = null;
+        return this;
     }
 
     private boolean includesWww() {
-        return host.startsWith("www.");
+        return labels() > 0 && StringUtils.isWww(texts[0], starts[0], ends[0]);
+    }
+
+    private int labels() {
+        if (count == -1) {
+            count = 0;
+            int labelStart = 0;
+            for (int i = 0; i <= source.length(); i++) {
+                if (i == source.length() || source.charAt(i) == '.') {
+                    insert(count, source, labelStart, i);
+                    labelStart = i + 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void insert(int index, String text, int start, int end) {
+        if (count == texts.length) {
+            texts = Arrays.copyOf(texts, count * 2);
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+
+        System.arraycopy(texts, index, texts, index + 1, count - index);
+        System.arraycopy(starts, index, starts, index + 1, count - index);
+        System.arraycopy(ends, index, ends, index + 1, count - index);
+        texts[index] = text;
+        starts[index] = start;
+        ends[index] = end;
+        count++;
+    }
+
+    private void delete(int index) {
+        count--;
+        System.arraycopy(texts, index + 1, texts, index, count - index);
+        System.arraycopy(starts, index + 1, starts, index, count - index);
+        System.arraycopy(ends, index + 1, ends, index, count - index);
+        texts[count] = null;
+    }
+
+    private static void checkLabel(String label) {
+        if (StringUtils.isBlank(label) || label.indexOf('.') != -1) {
+            throw new IllegalArgumentException("Invalid host label: " + label);
+        }
+    }
+
+    private static void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Label index: " + index + ", limit: " + limit);
+        }
     }
 }
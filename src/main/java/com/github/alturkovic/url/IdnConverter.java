@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.net.IDN;
+
+/**
+ * Converts hosts between their Unicode and ASCII (punycode) forms.
+ * <p>
+ * Conversions are cached in bounded caches shared by all threads, hosts which do not need converting skip both
+ * {@link IDN} and the caches.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class IdnConverter {
+    private static final int MAXIMUM_SIZE = 4096;
+    private static final String ACE_PREFIX = "xn--";
+
+    private static final TinyLfuCache<String, String> ASCII = new TinyLfuCache<>(MAXIMUM_SIZE);
+    private static final TinyLfuCache<String, String> UNICODE = new TinyLfuCache<>(MAXIMUM_SIZE);
+
+    static String toAscii(String host) {
+        if (isAscii(host)) {
+            return host;
+        }
+
+        return ASCII.get(host, IdnConverter::convertToAscii);
+    }
+
+    static String toUnicode(String host) {
+        if (!containsAcePrefix(host)) {
+            return host;
+        }
+
+        return UNICODE.get(host, IDN::toUnicode);
+    }
+
+    private static String convertToAscii(String host) {
+        try {
+            return IDN.toASCII(host);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot convert host to ASCII: " + host, e);
+        }
+    }
+
+    private static boolean isAscii(String host) {
+        for (int i = 0; i < host.length(); i++) {
+            if (host.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAcePrefix(String host) {
+        int start = 0;
+        while (true) {
+            if (host.regionMatches(true, start, ACE_PREFIX, 0, ACE_PREFIX.length())) {
+                return true;
+            }
+
+            int dot = host.indexOf('.', start);
+            if (dot == -1) {
+                return false;
+            }
+            start = dot + 1;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import java.util.Optional;
+
+/**
+ * IPv4 or IPv6 address stored as an unsigned 128-bit number in two {@code long}s.
+ * <p>
+ * IPv4 addresses are stored in their IPv4-mapped IPv6 form ({@code ::ffff:a.b.c.d}), so ranges of either version
+ * can be compared directly. IPv4 hosts are parsed like browsers do, accepting the shortened, octal and hexadecimal
+ * forms such as '127.1' or '0x7f.0.0.1'. IPv6 hosts can be enclosed in brackets, use zero compression and end with
+ * an embedded IPv4 address. Zone identifiers are ignored.
+ */
+public final class IpAddress {
+    private static final long IPV4_MAPPED_PREFIX = 0xffffL << 32;
+
+    private final long high;
+    private final long low;
+    private final boolean ipv4;
+
+    IpAddress(long high, long low, boolean ipv4) {
+        this.high = high;
+        this.low = low;
+        this.ipv4 = ipv4;
+    }
+
+    /**
+     * Parse the IP address literal {@code host}.
+     *
+     * @param host to parse, e.g. '192.168.0.1', '::1' or '[2001:db8::1]'
+     * @return parsed address, empty if {@code host} is not an IP address
+     */
+    public static Optional<IpAddress> parse(CharSequence host) {
+        return Optional.ofNullable(parse(host, IpAddress::new));
+    }
+
+    /**
+     * Check if {@code host} is an IP address literal.
+     *
+     * @param host to check
+     * @return {@code true} if {@code host} is an IPv4 or IPv6 address, {@code false} otherwise
+     */
+    public static boolean isIpAddress(CharSequence host) {
+        return parse(host, (high, low, ipv4) -> Boolean.TRUE) != null;
+    }
+
+    /**
+     * Get the high 64 bits of the address.
+     *
+     * @return unsigned high bits
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * Get the low 64 bits of the address.
+     *
+     * @return unsigned low bits
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * Check if the address was parsed from an IPv4 literal.
+     *
+     * @return {@code true} for IPv4, {@code false} for IPv6
+     */
+    public boolean isIpv4() {
+        return ipv4;
+    }
+
+    /**
+     * Check if the address is an IPv4 or IPv4-mapped IPv6 address.
+     *
+     * @return {@code true} if the address can be represented as IPv4, {@code false} otherwise
+     */
+    public boolean isIpv4Mapped() {
+        return high == 0 && (low & 0xffffffff00000000L) == IPV4_MAPPED_PREFIX;
+    }
+
+    /**
+     * Get the host form of this address usable in urls, enclosing IPv6 addresses in brackets.
+     *
+     * @return canonical url host
+     */
+    public String toHost() {
+        return ipv4 ? toString() : "[" + this + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        IpAddress that = (IpAddress) o;
+        return high == that.high && low == that.low && ipv4 == that.ipv4;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(high) + Long.hashCode(low)) + Boolean.hashCode(ipv4);
+    }
+
+    /**
+     * Format the address canonically, IPv4 in dotted-decimal and IPv6 as described by
+     * <a href="https://www.rfc-editor.org/rfc/rfc5952">RFC 5952</a>.
+     *
+     * @return canonical address
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(39);
+        if (ipv4) {
+            return appendIpv4(result, (int) low).toString();
+        }
+
+        int groups = isIpv4Mapped() ? 6 : 8;
+
+        // the longest run of at least two zero groups is compressed, the first one if equally long
+        int zerosStart = -1;
+        int zerosLength = 1;
+        for (int i = 0; i < groups; i++) {
+            int length = 0;
+            while (i + length < groups && group(i + length) == 0) {
+                length++;
+            }
+            if (length > zerosLength) {
+                zerosStart = i;
+                zerosLength = length;
+            }
+            i += length;
+        }
+
+        for (int i = 0; i < groups; i++) {
+            if (i == zerosStart) {
+                result.append("::");
+                i += zerosLength - 1;
+                continue;
+            }
+
+            if (result.length() > 0 && result.charAt(result.length() - 1) != ':') {
+                result.append(':');
+            }
+            result.append(Integer.toHexString(group(i)));
+        }
+
+        if (groups == 6) {
+            if (result.charAt(result.length() - 1) != ':') {
+                result.append(':');
+            }
+            appendIpv4(result, (int) low);
+        }
+        return result.toString();
+    }
+
+    private int group(int index) {
+        long bits = index < 4 ? high : low;
+        return (int) (bits >>> (16 * (3 - (index & 3)))) & 0xffff;
+    }
+
+    private static StringBuilder appendIpv4(StringBuilder result, int address) {
+        return result.append(address >>> 24).append('.')
+            .append((address >>> 16) & 0xff).append('.')
+            .append((address >>> 8) & 0xff).append('.')
+            .append(address & 0xff);
+    }
+
+    /**
+     * Receives a parsed address without creating an {@link IpAddress}.
+     *
+     * @param <R> type of the result
+     */
+    @FunctionalInterface
+    interface Consumer<R> {
+        R accept(long high, long low, boolean ipv4);
+    }
+
+    /**
+     * Parse {@code host} and pass the address to {@code consumer}.
+     *
+     * @return result of {@code consumer} or {@code null} if {@code host} is not an IP address
+     */
+    static <R> R parse(CharSequence host, Consumer<R> consumer) {
+        if (host == null || host.length() == 0) {
+            return null;
+        }
+
+        int end = host.length();
+        if (host.charAt(0) == '[') {
+            if (host.charAt(end - 1) != ']') {
+                return null;
+            }
+            return parseIpv6(host, 1, end - 1, consumer);
+        }
+
+        for (int i = 0; i < end; i++) {
+            if (host.charAt(i) == ':') {
+                return parseIpv6(host, 0, end, consumer);
+            }
+        }
+
+        long ipv4 = parseIpv4(host, 0, end);
+        return ipv4 == -1 ? null : consumer.accept(0, IPV4_MAPPED_PREFIX | ipv4, true);
+    }
+
+    private static <R> R parseIpv6(CharSequence host, int start, int end, Consumer<R> consumer) {
+        for (int i = start; i < end; i++) {
+            if (host.charAt(i) == '%') {
+                end = i;
+                break;
+            }
+        }
+
+        long high = 0;
+        long low = 0;
+        int groups = 0;
+        int compressedAt = -1;
+
+        int i = start;
+        if (end - i >= 2 && host.charAt(i) == ':' && host.charAt(i + 1) == ':') {
+            compressedAt = 0;
+            i += 2;
+        }
+
+        while (i < end) {
+            int groupStart = i;
+            int value = 0;
+            while (i < end && i - groupStart < 5 && Character.digit(host.charAt(i), 16) != -1) {
+                value = (value << 4) | Character.digit(host.charAt(i), 16);
+                i++;
+            }
+
+            if (i < end && host.charAt(i) == '.') {
+                long ipv4 = groups <= 6 ? parseDottedQuad(host, groupStart, end) : -1;
+                if (ipv4 == -1) {
+                    return null;
+                }
+
+                high = (high << 32) | (low >>> 32);
+                low = (low << 32) | ipv4;
+                groups += 2;
+                break;
+            }
+
+            int digits = i - groupStart;
+            if (digits == 0 || digits > 4 || groups == 8) {
+                return null;
+            }
+
+            high = (high << 16) | (low >>> 48);
+            low = (low << 16) | value;
+            groups++;
+
+            if (i == end) {
+                break;
+            }
+            if (host.charAt(i++) != ':' || i == end) {
+                return null;
+            }
+            if (host.charAt(i) == ':') {
+                if (compressedAt != -1) {
+                    return null;
+                }
+                compressedAt = groups;
+                i++;
+            }
+        }
+
+        if (compressedAt == -1) {
+            return groups == 8 ? consumer.accept(high, low, false) : null;
+        }
+        if (groups > 7) {
+            return null;
+        }
+
+        // move the groups following '::' to the end, filling the gap with zero groups
+        int tailBits = 16 * (groups - compressedAt);
+        long tailHigh = tailBits > 64 ? high & mask(tailBits - 64) : 0;
+        long tailLow = tailBits >= 64 ? low : low & mask(tailBits);
+        long headHigh = shiftRightHigh(high, tailBits);
+        long headLow = shiftRightLow(high, low, tailBits);
+
+        int headShift = 128 - 16 * compressedAt;
+        return consumer.accept(
+            shiftLeftHigh(headHigh, headLow, headShift) | tailHigh,
+            shiftLeftLow(headLow, headShift) | tailLow,
+            false
+        );
+    }
+
+    // browsers accept one to four dot separated decimal, octal or hexadecimal parts, the last filling the rest
+    private static long parseIpv4(CharSequence host, int start, int end) {
+        if (end > start && host.charAt(end - 1) == '.') {
+            end--;
+        }
+
+        long address = 0;
+        int parts = 0;
+        int partStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && host.charAt(i) != '.') {
+                continue;
+            }
+
+            long part = parseIpv4Number(host, partStart, i);
+            if (part == -1 || ++parts > 4) {
+                return -1;
+            }
+
+            if (i == end) {
+                int remainingBits = 8 * (5 - parts);
+                if (part >= 1L << remainingBits) {
+                    return -1;
+                }
+                return (address << remainingBits) | part;
+            }
+
+            if (part > 255) {
+                return -1;
+            }
+            address = (address << 8) | part;
+            partStart = i + 1;
+        }
+        return -1;
+    }
+
+    private static long parseIpv4Number(CharSequence host, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+
+        int radix = 10;
+        if (end - start >= 2 && host.charAt(start) == '0' && (host.charAt(start + 1) == 'x' || host.charAt(start + 1) == 'X')) {
+            radix = 16;
+            start += 2;
+        } else if (end - start >= 2 && host.charAt(start) == '0') {
+            radix = 8;
+            start++;
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(host.charAt(i), radix);
+            if (digit == -1) {
+                return -1;
+            }
+
+            value = value * radix + digit;
+            if (value > 0xffffffffL) {
+                return -1;
+            }
+        }
+        return value;
+    }
+
+    private static long parseDottedQuad(CharSequence host, int start, int end) {
+        long address = 0;
+        int parts = 0;
+        int partStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && host.charAt(i) != '.') {
+                continue;
+            }
+
+            int length = i - partStart;
+            if (length == 0 || length > 3 || (length > 1 && host.charAt(partStart) == '0') || ++parts > 4) {
+                return -1;
+            }
+
+            int part = 0;
+            for (int j = partStart; j < i; j++) {
+                char c = host.charAt(j);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                part = part * 10 + (c - '0');
+            }
+            if (part > 255) {
+                return -1;
+            }
+
+            address = (address << 8) | part;
+            partStart = i + 1;
+        }
+        return parts == 4 ? address : -1;
+    }
+
+    private static long mask(int bits) {
+        return bits >= 64 ? -1L : (1L << bits) - 1;
+    }
+
+    private static long shiftRightHigh(long high, int bits) {
+        return bits >= 64 ? 0 : high >>> bits;
+    }
+
+    private static long shiftRightLow(long high, long low, int bits) {
+        if (bits == 0) {
+            return low;
+        }
+        if (bits >= 64) {
+            return bits == 128 ? 0 : high >>> (bits - 64);
+        }
+        return (low >>> bits) | (high << (64 - bits));
+    }
+
+    private static long shiftLeftHigh(long high, long low, int bits) {
+        if (bits == 0) {
+            return high;
+        }
+        if (bits >= 64) {
+            return bits == 128 ? 0 : low << (bits - 64);
+        }
+        return (high << bits) | (low >>> (64 - bits));
+    }
+
+    private static long shiftLeftLow(long low, int bits) {
+        return bits >= 64 ? 0 : low << bits;
+    }
+}
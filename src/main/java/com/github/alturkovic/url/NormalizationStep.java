@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+/**
+ * Named normalization steps applied by {@link UrlNormalizer}.
+ */
+public enum NormalizationStep {
+    /**
+     * Lowercase the protocol, e.g. 'HTTP://' to 'http://'.
+     */
+    LOWERCASE_PROTOCOL,
+
+    /**
+     * Lowercase the host, e.g. 'Example.COM' to 'example.com'.
+     */
+    LOWERCASE_HOST,
+
+    /**
+     * Remove the 'www.' host prefix in any case, e.g. 'www.example.com' or 'WWW.example.com' to 'example.com'.
+     * <p>
+     * Hosts are matched the same way as by {@link HostBuilder#withoutWww()}, so 'www.com' is left unchanged.
+     */
+    REMOVE_WWW,
+
+    /**
+     * Remove the port if it is the default port of the http(s) protocol, e.g. 'http://example.com:80' to 'http://example.com'.
+     */
+    REMOVE_DEFAULT_PORT,
+
+    /**
+     * Remove '.' and '..' path segments, e.g. '/a/./b/../c' to '/a/c'.
+     *
+     * @see PathBuilder#removeDotSegments()
+     */
+    REMOVE_DOT_SEGMENTS,
+
+    /**
+     * Remove the trailing slash of the path, e.g. '/a/' to '/a'.
+     */
+    REMOVE_TRAILING_SLASH,
+
+    /**
+     * Sort query parameters by name, keeping the order of parameters with the same name, e.g. '?b=1&amp;a=2' to '?a=2&amp;b=1'.
+     * Empty parameters are removed.
+     */
+    SORT_QUERY_PARAMETERS,
+
+    /**
+     * Remove the fragment, e.g. '/a#top' to '/a'.
+     */
+    REMOVE_FRAGMENT,
+
+    /**
+     * Uppercase the hexadecimal digits of percent-encoded octets, e.g. '%c3%bc' to '%C3%BC'.
+     */
+    UPPERCASE_PERCENT_ENCODING,
+
+    /**
+     * Decode percent-encoded unreserved characters (letters, digits, '-', '.', '_' and '~'), e.g. '%7Euser' to '~user'.
+     */
+    DECODE_UNRESERVED_CHARACTERS
+}
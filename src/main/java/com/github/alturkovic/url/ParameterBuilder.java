@@ -21,29 +21,48 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-
 package com.github.alturkovic.url;
 
-import lombok.AccessLevel;
-import lombok.Getter;
-
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
-import java.util.stream.Collectors;
 
-import static java.util.Collections.singletonList;
+import static java.util.Collections.emptyList;
 
 /**
  * Used to build parameters. The delimiter determines what type of query it builds.
  * <p>
  * It can be used to either build the query parameters or path matrix parameters.
+ * <p>
+ * The built parameter string is cached until the next modification. Builders initialized from text which formats
+ * back to itself reuse that text instead of formatting the parameters again.
+ * <p>
+ * Parameter names and values are stored in insertion order in parallel arrays. Setting, removing or looking up
+ * parameters by name goes through a name index which is only built once it is needed, so large queries can be
+ * modified without scanning all parameters for every name.
+ * <p>
+ * Reading parameters never rearranges the storage. The name index is built aside and published in one write, so a
+ * builder which is no longer modified can be read from multiple threads.
  */
-@Getter(AccessLevel.PACKAGE)
 public class ParameterBuilder {
-    private final List<UrlParameter> parameters = new ArrayList<>();
+    private static final String[] EMPTY = new String[0];
+    private static final int MINIMUM_CAPACITY = 4;
+
+    private String[] names = EMPTY;
+    private String[] values = EMPTY;
+    private int size;
+    private int removed;
+
+    private NameIndex index;
+
+    private String built;
+    private String builtDelimiter;
 
     /**
      * Initialize a new builder from {@code query} using {@code delimiter} to split parameter pairs.
@@ -53,11 +72,36 @@ public class ParameterBuilder {
      * @return builder instance
      */
     public static ParameterBuilder of(String query, String delimiter) {
-        if (StringUtils.isBlank(query)) {
-            return new ParameterBuilder();
+        return new ParameterBuilder().reset(query, delimiter);
+    }
+
+    /**
+     * Reinitialize this builder from {@code query} using {@code delimiter} to split parameter pairs.
+     * <p>
+     * Pairs are split on the first '=', so values can contain '=' themselves. Empty pairs are skipped.
+     * The existing parameter capacity is reused.
+     *
+     * @param query     to initialize from
+     * @param delimiter to separate parameter pairs
+     * @return this builder
+     */
+    public ParameterBuilder reset(CharSequence query, String delimiter) {
+        clear();
+
+        String queryString = query == null ? null : query.toString();
+        if (StringUtils.isBlank(queryString)) {
+            return this;
         }
 
-        return initialize(query, delimiter);
+        queryString = StringUtils.removeSuffix(queryString, "/");
+        int formattedLength = scan(queryString, delimiter);
+
+        // parameters are formatted from substrings of the source, so equal length means equal text
+        if (size > 0 && formattedLength == queryString.length()) {
+            this.built = queryString;
+            this.builtDelimiter = delimiter;
+        }
+        return this;
     }
 
     /**
@@ -65,9 +109,10 @@ public class ParameterBuilder {
      *
      * @param name of the parameter
      * @return this builder
+     * @throws IllegalArgumentException if {@code name} is blank
      */
     public ParameterBuilder add(String name) {
-        return add(UrlParameter.named(name));
+        return append(name, null);
     }
 
     /**
@@ -76,9 +121,10 @@ public class ParameterBuilder {
      * @param name  of the parameter
      * @param value of the parameter
      * @return this builder
+     * @throws IllegalArgumentException if {@code name} is blank
      */
     public ParameterBuilder add(String name, String value) {
-        return add(UrlParameter.of(name, value));
+        return append(name, StringUtils.isBlank(value) ? null : value);
     }
 
     /**
@@ -89,6 +135,7 @@ public class ParameterBuilder {
      * @return this builder
      */
     public ParameterBuilder addAll(String name, Collection<String> values) {
+        reserve(values.size());
         for (String value : values) {
             add(name, value);
         }
@@ -102,6 +149,7 @@ public class ParameterBuilder {
      * @return this builder
      */
     public ParameterBuilder add(Map<String, String> parameters) {
+        reserve(parameters.size());
         parameters.forEach(this::add);
         return this;
     }
@@ -158,7 +206,23 @@ public class ParameterBuilder {
      * @return this builder
      */
     public ParameterBuilder remove(String name) {
-        return remove(singletonList(name));
+        if (size == removed) {
+            return this;
+        }
+
+        NameIndex nameIndex = index();
+        Integer last = nameIndex.last.remove(name);
+        if (last == null) {
+            return this;
+        }
+
+        for (int slot = last; slot != -1; slot = nameIndex.previous[slot]) {
+            names[slot] = null;
+            values[slot] = null;
+            removed++;
+        }
+        modified();
+        return this;
     }
 
     /**
@@ -168,7 +232,7 @@ public class ParameterBuilder {
      * @return this builder
      */
     public ParameterBuilder remove(List<String> parameters) {
-        this.parameters.removeIf(parameter -> parameters.contains(parameter.getName()));
+        parameters.forEach(this::remove);
         return this;
     }
 
@@ -181,7 +245,19 @@ public class ParameterBuilder {
      * @return this builder
      */
     public ParameterBuilder removeBy(BiPredicate<String, String> condition) {
-        parameters.removeIf(parameter -> condition.test(parameter.getName(), parameter.getValue()));
+        int removedBefore = removed;
+        for (int i = 0; i < size; i++) {
+            if (names[i] != null && condition.test(names[i], values[i])) {
+                names[i] = null;
+                values[i] = null;
+                removed++;
+            }
+        }
+
+        if (removed != removedBefore) {
+            compact();
+            modified();
+        }
         return this;
     }
 
@@ -191,44 +267,281 @@ public class ParameterBuilder {
      * @return this builder
      */
     public ParameterBuilder clear() {
-        parameters.clear();
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        removed = 0;
+        index = null;
+        modified();
         return this;
     }
 
+    /**
+     * Reserve capacity so that {@code additional} parameters can be added without growing the storage again.
+     *
+     * @param additional number of parameters to be added
+     * @return this builder
+     */
+    public ParameterBuilder reserve(int additional) {
+        int required = size - removed + additional;
+        if (required > names.length) {
+            compact();
+            resize(Math.max(required, MINIMUM_CAPACITY));
+        }
+        return this;
+    }
+
+    /**
+     * Create an independent copy of this builder.
+     * <p>
+     * The parameter names and values are copied without formatting or parsing them.
+     *
+     * @return builder copy
+     */
+    public ParameterBuilder copy() {
+        ParameterBuilder copy = new ParameterBuilder();
+        if (removed == 0) {
+            copy.names = Arrays.copyOf(names, size);
+            copy.values = Arrays.copyOf(values, size);
+        } else {
+            copy.names = new String[size - removed];
+            copy.values = new String[size - removed];
+            for (int i = 0, live = 0; i < size; i++) {
+                if (names[i] != null) {
+                    copy.names[live] = names[i];
+                    copy.values[live++] = values[i];
+                }
+            }
+        }
+        copy.size = size - removed;
+        copy.built = built;
+        copy.builtDelimiter = builtDelimiter;
+        return copy;
+    }
+
     /**
      * Create the parameter string from the registered parameter pairs.
+     * <p>
+     * The same instance is returned until this builder is modified or a different {@code delimiter} is used.
      *
      * @param delimiter to separate parameter pairs
      * @return formatted parameters
      */
     public String build(String delimiter) {
-        if (parameters.isEmpty()) {
+        if (size == removed) {
             return null;
         }
 
-        return String.join(delimiter, constructParameterPairs());
+        if (built == null || !delimiter.equals(builtDelimiter)) {
+            built = format(delimiter);
+            builtDelimiter = delimiter;
+        }
+        return built;
+    }
+
+    int count() {
+        return size - removed;
+    }
+
+    void forEach(BiConsumer<String, String> action) {
+        for (int i = 0; i < size; i++) {
+            if (names[i] != null) {
+                action.accept(names[i], values[i]);
+            }
+        }
     }
 
-    private ParameterBuilder add(UrlParameter parameter) {
-        this.parameters.add(parameter);
+    /**
+     * Build the name index ahead of time so that later reads do not need to.
+     */
+    void prepare() {
+        if (size != removed) {
+            index();
+        }
+    }
+
+    List<String> getValues(String name) {
+        NameIndex nameIndex = size == removed ? null : index();
+        Integer last = nameIndex == null ? null : nameIndex.last.get(name);
+        if (last == null) {
+            return emptyList();
+        }
+
+        List<String> result = new ArrayList<>();
+        for (int slot = last; slot != -1; slot = nameIndex.previous[slot]) {
+            result.add(values[slot]);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    void intern(UrlInterner interner) {
+        for (int i = 0; i < size; i++) {
+            if (names[i] != null) {
+                names[i] = interner.intern(UrlInterner.Component.PARAMETER_NAME, names[i]);
+            }
+        }
+    }
+
+    private int scan(String query, String delimiter) {
+        int formattedLength = -delimiter.length();
+        int length = query.length();
+        int start = 0;
+        while (start < length) {
+            int end = query.indexOf(delimiter, start);
+            if (end == -1) {
+                end = length;
+            }
+
+            if (end > start) {
+                int equals = start;
+                while (equals < end && query.charAt(equals) != '=') {
+                    equals++;
+                }
+
+                // parsed pairs can have empty names, like "=1", and are kept as they are
+                if (equals == end) {
+                    insert(query.substring(start, end), null);
+                } else {
+                    String value = query.substring(equals + 1, end);
+                    insert(query.substring(start, equals), StringUtils.isBlank(value) ? null : value);
+                }
+                formattedLength += formattedLength(size - 1) + delimiter.length();
+            }
+            start = end + delimiter.length();
+        }
+        return formattedLength;
+    }
+
+    private ParameterBuilder append(String name, String value) {
+        // a null name marks a removed parameter
+        if (StringUtils.isBlank(name)) {
+            throw new IllegalArgumentException("Parameter name cannot be undefined");
+        }
+
+        insert(name, value);
         return this;
     }
 
-    private List<String> constructParameterPairs() {
-        return parameters.stream()
-            .map(UrlParameter::format)
-            .collect(Collectors.toList());
+    private void insert(String name, String value) {
+        if (size == names.length) {
+            if (removed > size / 4) {
+                compact();
+            } else {
+                resize(Math.max(size * 2, MINIMUM_CAPACITY));
+            }
+        }
+
+        names[size] = name;
+        values[size] = value;
+        if (index != null) {
+            index.link(names, size);
+        }
+        size++;
+        modified();
     }
 
-    private static ParameterBuilder initialize(String query, String delimiter) {
-        query = StringUtils.removeSuffix(query, "/");
+    private String format(String delimiter) {
+        int length = -delimiter.length();
+        for (int i = 0; i < size; i++) {
+            if (names[i] != null) {
+                length += formattedLength(i) + delimiter.length();
+            }
+        }
+
+        StringBuilder result = new StringBuilder(length);
+        boolean first = true;
+        for (int i = 0; i < size; i++) {
+            if (names[i] == null) {
+                continue;
+            }
+
+            if (!first) {
+                result.append(delimiter);
+            }
+            first = false;
 
-        String[] parameters = query.split(delimiter);
+            result.append(names[i]);
+            if (values[i] != null) {
+                result.append('=').append(values[i]);
+            }
+        }
+        return result.toString();
+    }
+
+    private int formattedLength(int slot) {
+        if (values[slot] == null) {
+            return names[slot].length();
+        }
+
+        return names[slot].length() + 1 + values[slot].length();
+    }
+
+    private NameIndex index() {
+        NameIndex nameIndex = index;
+        if (nameIndex == null) {
+            nameIndex = new NameIndex(names, size);
+            index = nameIndex;
+        }
+        return nameIndex;
+    }
+
+    private void compact() {
+        if (removed == 0) {
+            return;
+        }
+
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (names[i] != null) {
+                names[live] = names[i];
+                values[live] = values[i];
+                live++;
+            }
+        }
+
+        Arrays.fill(names, live, size, null);
+        Arrays.fill(values, live, size, null);
+        size = live;
+        removed = 0;
+        index = null;
+    }
+
+    private void resize(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        values = Arrays.copyOf(values, capacity);
+        index = null;
+    }
+
+    private void modified() {
+        this.built = null;
+    }
+
+    /**
+     * Last slot of each name, earlier slots with the same name are linked through {@code previous}.
+     * <p>
+     * Built completely before it is assigned, the final fields make it safe to publish without locking.
+     */
+    private static final class NameIndex {
+        private final Map<String, Integer> last;
+        private final int[] previous;
+
+        private NameIndex(String[] names, int size) {
+            Map<String, Integer> last = new HashMap<>(Math.max(16, size * 2));
+            int[] previous = new int[names.length];
+            for (int slot = 0; slot < size; slot++) {
+                if (names[slot] != null) {
+                    Integer before = last.put(names[slot], slot);
+                    previous[slot] = before == null ? -1 : before;
+                }
+            }
+            this.last = last;
+            this.previous = previous;
+        }
 
-        ParameterBuilder builder = new ParameterBuilder();
-        for (String parameter : parameters) {
-            UrlParameter.parse(parameter).ifPresent(builder::add);
+        private void link(String[] names, int slot) {
+            Integer before = last.put(names[slot], slot);
+            previous[slot] = before == null ? -1 : before;
         }
-        return builder;
     }
 }
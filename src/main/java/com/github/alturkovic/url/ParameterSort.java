@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+/**
+ * Stable sort of query parameters by name, without copying them out of the text they were found in.
+ * <p>
+ * Parameter {@code i} spans {@code bounds[i * 2]} to {@code bounds[i * 2 + 1]} and its name ends at the first
+ * {@code '='}. Names are compared by their raw chars, parameters with equal names keep their original order.
+ */
+final class ParameterSort {
+    private ParameterSort() {
+    }
+
+    /**
+     * Sorts the first {@code count} bound pairs by parameter name.
+     *
+     * @return {@code false} if the parameters were already sorted and the bounds were left untouched
+     */
+    static boolean sort(CharSequence text, int[] bounds, int count) {
+        if (count < 2) {
+            return false;
+        }
+
+        // start, name end and end of every parameter, so names are only scanned for '=' once
+        int[] source = new int[count * 3];
+        for (int i = 0; i < count; i++) {
+            int start = bounds[i * 2];
+            int end = bounds[i * 2 + 1];
+            source[i * 3] = start;
+            source[i * 3 + 1] = nameEnd(text, start, end);
+            source[i * 3 + 2] = end;
+        }
+
+        if (isSorted(text, source, count)) {
+            return false;
+        }
+
+        // bottom-up merge sort
+        int[] target = new int[count * 3];
+        for (int width = 1; width < count; width *= 2) {
+            for (int left = 0; left < count; left += width * 2) {
+                int middle = Math.min(left + width, count);
+                int right = Math.min(left + width * 2, count);
+                merge(text, source, target, left, middle, right);
+            }
+
+            int[] merged = target;
+            target = source;
+            source = merged;
+        }
+
+        for (int i = 0; i < count; i++) {
+            bounds[i * 2] = source[i * 3];
+            bounds[i * 2 + 1] = source[i * 3 + 2];
+        }
+        return true;
+    }
+
+    static int nameEnd(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '=') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isSorted(CharSequence text, int[] parameters, int count) {
+        for (int i = 1; i < count; i++) {
+            if (compareNames(text, parameters, i - 1, i) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void merge(CharSequence text, int[] source, int[] target, int left, int middle, int right) {
+        int i = left;
+        int j = middle;
+        for (int k = left; k < right; k++) {
+            // equal names take the left parameter first, keeping their original order
+            int from = j == right || (i < middle && compareNames(text, source, i, j) <= 0) ? i++ : j++;
+            System.arraycopy(source, from * 3, target, k * 3, 3);
+        }
+    }
+
+    private static int compareNames(CharSequence text, int[] parameters, int first, int second) {
+        int i = parameters[first * 3];
+        int firstEnd = parameters[first * 3 + 1];
+        int j = parameters[second * 3];
+        int secondEnd = parameters[second * 3 + 1];
+        while (i < firstEnd && j < secondEnd) {
+            int difference = text.charAt(i++) - text.charAt(j++);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return (firstEnd - i) - (secondEnd - j);
+    }
+}
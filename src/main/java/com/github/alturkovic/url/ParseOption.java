@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+/**
+ * Optional normalization steps applied while parsing urls.
+ */
+public enum ParseOption {
+    /**
+     * Remove '.' and '..' path segments, e.g. '/a/./b/../c' to '/a/c'.
+     */
+    REMOVE_DOT_SEGMENTS {
+        @Override
+        void apply(UrlBuilder builder) {
+            builder.removeDotSegments(false);
+        }
+    },
+
+    /**
+     * Remove '.' and '..' path segments and collapse empty path segments, e.g. '/a//./b' to '/a/b'.
+     */
+    REMOVE_DOT_AND_EMPTY_SEGMENTS {
+        @Override
+        void apply(UrlBuilder builder) {
+            builder.removeDotSegments(true);
+        }
+    },
+
+    /**
+     * Convert the host to its ASCII form, e.g. 'bücher.de' to 'xn--bcher-kva.de'.
+     */
+    ASCII_HOST {
+        @Override
+        void apply(UrlBuilder builder) {
+            builder.host(HostBuilder::toAscii);
+        }
+    },
+
+    /**
+     * Convert the host to its Unicode form, e.g. 'xn--bcher-kva.de' to 'bücher.de'.
+     */
+    UNICODE_HOST {
+        @Override
+        void apply(UrlBuilder builder) {
+            builder.host(HostBuilder::toUnicode);
+        }
+    },
+
+    /**
+     * Convert IP address hosts to their canonical form, e.g. '0x7f.1' to '127.0.0.1'.
+     */
+    CANONICAL_IP_HOST {
+        @Override
+        void apply(UrlBuilder builder) {
+            builder.host(HostBuilder::canonicalizeIpAddress);
+        }
+    };
+
+    abstract void apply(UrlBuilder builder);
+}
@@ -21,15 +21,15 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-
 package com.github.alturkovic.url;
 
-import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.Getter;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -40,10 +40,23 @@ import static java.util.Collections.singletonList;
 
 /**
  * Used to build the URL path.
+ * <p>
+ * The built path is cached until the next modification. Builders initialized from a path which formats back to itself
+ * reuse that path instead of formatting the segments again.
+ * <p>
+ * Paths without matrix parameters are kept as text until their segments are modified, so building, prefix matching
+ * and reading segment names do not create segment instances. Reading segments of such a path splits the text into a
+ * separate list, so a builder which is no longer modified can be read from multiple threads.
  */
-@Getter(AccessLevel.PACKAGE)
 public class PathBuilder {
     private final List<PathSegment> pathSegments = new ArrayList<>();
+    private final List<PathSegment> recycledSegments = new ArrayList<>(0);
+
+    // path without matrix parameters whose segments are not created yet
+    private String source;
+    // interned segment paths of the source, used instead of its substrings once it is split
+    private String[] sourcePaths;
+    private String built;
 
     /**
      * Initialize a new builder from {@code path}.
@@ -52,11 +65,47 @@ public class PathBuilder {
      * @return builder instance
      */
     public static PathBuilder of(String path) {
-        if (StringUtils.isBlank(path)) {
-            return new PathBuilder();
+        return new PathBuilder().reset(path);
+    }
+
+    /**
+     * Reinitialize this builder from {@code path}.
+     * <p>
+     * The existing segment list capacity and segment instances are reused.
+     *
+     * @param path to initialize from
+     * @return this builder
+     */
+    public PathBuilder reset(CharSequence path) {
+        clear();
+
+        String pathString = path == null ? null : path.toString();
+        if (StringUtils.isBlank(pathString)) {
+            return this;
         }
 
-        return initialize(path);
+        if (pathString.indexOf(';') == -1) {
+            this.source = pathString;
+            this.built = isVerbatim(pathString) ? pathString : null;
+            return this;
+        }
+
+        int start = pathString.startsWith("/") ? 1 : 0;
+        boolean verbatim = start == 1 && !pathString.startsWith("/;");
+        while (true) {
+            int end = segmentEnd(pathString, start);
+
+            String text = pathString.substring(start, end);
+            PathSegment segment = recycleSegment().reset(text);
+            verbatim = verbatim && segment.formatsAs(text);
+            this.pathSegments.add(segment);
+
+            if (end == pathString.length()) {
+                this.built = verbatim ? pathString : null;
+                return this;
+            }
+            start = end + 1;
+        }
     }
 
     /**
@@ -79,7 +128,8 @@ public class PathBuilder {
      */
     public PathBuilder add(String path) {
         PathBuilder builder = PathBuilder.of(path);
-        this.pathSegments.addAll(builder.getPathSegments());
+        segments().addAll(builder.getPathSegments());
+        modified();
         return this;
     }
 
@@ -90,9 +140,11 @@ public class PathBuilder {
      * @return this builder
      */
     public PathBuilder add(List<String> pathSegments) {
-        pathSegments.stream()
-            .map(PathSegment::of)
-            .forEach(this.pathSegments::add);
+        List<PathSegment> segments = segments();
+        for (String pathSegment : pathSegments) {
+            segments.add(PathSegment.of(pathSegment));
+        }
+        modified();
         return this;
     }
 
@@ -124,7 +176,11 @@ public class PathBuilder {
      * @return this builder
      */
     public PathBuilder clear() {
+        this.recycledSegments.addAll(this.pathSegments);
         this.pathSegments.clear();
+        this.source = null;
+        this.sourcePaths = null;
+        modified();
         return this;
     }
 
@@ -137,6 +193,7 @@ public class PathBuilder {
      */
     public PathBuilder remove(List<String> pathSegments) {
         getMatchingSegments(pathSegments).clear();
+        modified();
         return this;
     }
 
@@ -150,9 +207,7 @@ public class PathBuilder {
      * @throws IllegalArgumentException if {@code pathSegments} do not match the current path
      */
     public PathBuilder remove(String path) {
-        return remove(PathBuilder.of(path).getPathSegments().stream()
-            .map(PathSegment::getPath)
-            .collect(Collectors.toList()));
+        return remove(PathBuilder.of(path).getSegmentPaths());
     }
 
     /**
@@ -162,7 +217,8 @@ public class PathBuilder {
      * @return this builder
      */
     public PathBuilder remove(int index) {
-        this.pathSegments.remove(index);
+        segments().remove(index);
+        modified();
         return this;
     }
 
@@ -173,7 +229,9 @@ public class PathBuilder {
      * @return this builder
      */
     public PathBuilder removeBy(Predicate<String> condition) {
-        this.pathSegments.removeIf(pathSegment -> condition.test(pathSegment.getPath()));
+        if (segments().removeIf(pathSegment -> condition.test(pathSegment.getPath()))) {
+            modified();
+        }
         return this;
     }
 
@@ -192,7 +250,7 @@ public class PathBuilder {
      * @return this builder
      */
     public PathBuilder removeLast() {
-        return remove(this.pathSegments.size() - 1);
+        return remove(segments().size() - 1);
     }
 
     /**
@@ -202,50 +260,273 @@ public class PathBuilder {
      * @return this builder
      */
     public PathBuilder parameters(Consumer<ParameterBuilder> consumer) {
-        if (this.pathSegments.isEmpty()) {
+        if (segments().isEmpty()) {
             appendEmptyPath();
         }
 
         consumer.accept(getLastParameterBuilder());
+        modified();
+        return this;
+    }
+
+    /**
+     * Remove '.' and '..' segments as described by
+     * <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.4">RFC 3986</a>.
+     *
+     * @return this builder
+     */
+    public PathBuilder removeDotSegments() {
+        return removeDotSegments(false);
+    }
+
+    /**
+     * Remove '.' and '..' segments as described by
+     * <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.4">RFC 3986</a>,
+     * optionally collapsing empty segments, e.g. '/a//b' to '/a/b'.
+     * <p>
+     * Segments with matrix parameters are never treated as dot segments. A trailing empty segment is kept.
+     *
+     * @param collapseEmptySegments to also remove empty segments
+     * @return this builder
+     */
+    public PathBuilder removeDotSegments(boolean collapseEmptySegments) {
+        if (this.source != null) {
+            String normalized = removeDotSegments(this.source, collapseEmptySegments);
+            if (!normalized.equals(this.source)) {
+                this.source = normalized;
+                this.sourcePaths = null;
+                this.built = isVerbatim(normalized) ? normalized : null;
+            }
+            return this;
+        }
+
+        int size = this.pathSegments.size();
+        int written = 0;
+        for (int i = 0; i < size; i++) {
+            PathSegment segment = this.pathSegments.get(i);
+            boolean last = i == size - 1;
+            int dots = segment.hasParameters() ? 0 : dotSegment(segment.getPath());
+
+            if (dots == 2 && written > 0) {
+                this.recycledSegments.add(this.pathSegments.get(--written));
+            }
+
+            if (dots > 0) {
+                if (last) {
+                    this.pathSegments.set(written++, segment.reset(""));
+                } else {
+                    this.recycledSegments.add(segment);
+                }
+            } else if (!collapseEmptySegments || last || !segment.isEmpty()) {
+                this.pathSegments.set(written++, segment);
+            } else {
+                this.recycledSegments.add(segment);
+            }
+        }
+
+        if (written != size) {
+            this.pathSegments.subList(written, size).clear();
+            modified();
+        }
         return this;
     }
 
+    /**
+     * Count the leading segments of this path equal to {@code pathSegments}, ignoring matrix parameters.
+     *
+     * @param pathSegments to match
+     * @return number of matching leading segments
+     */
+    public int matchingSegments(List<String> pathSegments) {
+        if (this.source == null) {
+            int limit = Math.min(pathSegments.size(), this.pathSegments.size());
+            int matched = 0;
+            while (matched < limit && pathSegments.get(matched).equals(this.pathSegments.get(matched).getPath())) {
+                matched++;
+            }
+            return matched;
+        }
+
+        int matched = 0;
+        int start = segmentStart(this.source);
+        for (String pathSegment : pathSegments) {
+            if (start > this.source.length()) {
+                break;
+            }
+
+            int end = segmentEnd(this.source, start);
+            if (end - start != pathSegment.length() || !this.source.startsWith(pathSegment, start)) {
+                break;
+            }
+
+            matched++;
+            start = end + 1;
+        }
+        return matched;
+    }
+
+    /**
+     * Check if this path starts with {@code pathSegments}, ignoring matrix parameters.
+     *
+     * @param pathSegments to match
+     * @return {@code true} if all {@code pathSegments} match, {@code false} otherwise
+     */
+    public boolean startsWith(List<String> pathSegments) {
+        return matchingSegments(pathSegments) == pathSegments.size();
+    }
+
+    /**
+     * Check if this path starts with the segments of {@code path}, ignoring matrix parameters.
+     * <p>
+     * The provided {@code path} will be split using '/'.
+     *
+     * @param path to match
+     * @return {@code true} if all segments of {@code path} match, {@code false} otherwise
+     */
+    public boolean startsWith(String path) {
+        return startsWith(PathBuilder.of(path).getSegmentPaths());
+    }
+
+    /**
+     * Create an independent copy of this builder.
+     * <p>
+     * The segments and their matrix parameters are copied without formatting or parsing them.
+     *
+     * @return builder copy
+     */
+    public PathBuilder copy() {
+        PathBuilder copy = new PathBuilder();
+        for (PathSegment segment : this.pathSegments) {
+            copy.pathSegments.add(segment.copy());
+        }
+        copy.source = source;
+        copy.sourcePaths = sourcePaths;
+        copy.built = built;
+        return copy;
+    }
+
     /**
      * Create the path string from the registered segments and parameters.
+     * <p>
+     * The same instance is returned until this builder is modified.
      *
      * @return formatted path
      */
     public String build() {
-        if (this.pathSegments.isEmpty()) {
+        if (built != null) {
+            return built;
+        }
+
+        List<PathSegment> segments = getPathSegments();
+        if (segments.isEmpty()) {
             return null;
         }
 
-        String path = this.pathSegments.stream()
+        String path = segments.stream()
             .map(PathSegment::format)
             .collect(Collectors.joining("/"));
 
-        if (path.startsWith(";")) {
-            return path;
+        built = path.startsWith(";") ? path : "/" + path;
+        return built;
+    }
+
+    List<PathSegment> getPathSegments() {
+        if (this.source == null) {
+            return this.pathSegments;
+        }
+
+        List<PathSegment> segments = new ArrayList<>();
+        split(this.source, this.sourcePaths, segments);
+        return segments;
+    }
+
+    List<String> getSegmentPaths() {
+        if (this.source == null) {
+            return this.pathSegments.stream()
+                .map(PathSegment::getPath)
+                .collect(Collectors.toList());
+        }
+
+        if (this.sourcePaths != null) {
+            return new ArrayList<>(Arrays.asList(this.sourcePaths));
+        }
+
+        List<String> paths = new ArrayList<>();
+        int start = segmentStart(this.source);
+        while (true) {
+            int end = segmentEnd(this.source, start);
+            paths.add(this.source.substring(start, end));
+
+            if (end == this.source.length()) {
+                return paths;
+            }
+            start = end + 1;
         }
+    }
 
-        return "/" + path;
+    void intern(UrlInterner interner) {
+        if (this.source != null) {
+            List<String> paths = getSegmentPaths();
+            paths.replaceAll(path -> interner.intern(UrlInterner.Component.PATH_SEGMENT, path));
+            this.sourcePaths = paths.toArray(new String[0]);
+            return;
+        }
+
+        for (PathSegment segment : this.pathSegments) {
+            segment.setPath(interner.intern(UrlInterner.Component.PATH_SEGMENT, segment.getPath()));
+            if (segment.hasParameters()) {
+                segment.getParameters().intern(interner);
+            }
+        }
     }
 
     List<PathSegment> getMatchingSegments(List<String> pathSegments) {
-        if (this.pathSegments.isEmpty()) {
+        List<PathSegment> segments = segments();
+        if (segments.isEmpty()) {
             return emptyList();
         }
 
-        for (int i = 0; i < pathSegments.size(); i++) {
-            assertPathElementsMatch(pathSegments.get(i), i);
+        if (!startsWith(pathSegments)) {
+            throw new IllegalArgumentException(String.format(
+                "Path: '%s' does not match registered path: %s", pathSegments, segments
+            ));
+        }
+        return segments.subList(0, pathSegments.size());
+    }
+
+    private List<PathSegment> segments() {
+        if (this.source != null) {
+            String path = this.source;
+            String[] paths = this.sourcePaths;
+            this.source = null;
+            this.sourcePaths = null;
+            split(path, paths, this.pathSegments);
+        }
+        return this.pathSegments;
+    }
+
+    private void split(String path, String[] paths, List<PathSegment> segments) {
+        int start = segmentStart(path);
+        for (int i = 0; ; i++) {
+            int end = segmentEnd(path, start);
+            PathSegment segment = segments == this.pathSegments ? recycleSegment() : PathSegment.empty();
+            segments.add(segment.reset(paths == null ? path.substring(start, end) : paths[i]));
+
+            if (end == path.length()) {
+                return;
+            }
+            start = end + 1;
         }
-        return this.pathSegments.subList(0, pathSegments.size());
     }
 
     private void appendEmptyPath() {
         this.pathSegments.add(PathSegment.empty());
     }
 
+    private void modified() {
+        this.built = null;
+    }
+
     private PathSegment getLastPathSegment() {
         int lastIndex = this.pathSegments.size() - 1;
         return this.pathSegments.get(lastIndex);
@@ -253,47 +534,179 @@ public class PathBuilder {
 
     private ParameterBuilder getLastParameterBuilder() {
         PathSegment pathSegment = getLastPathSegment();
-        return pathSegment.getParameters();
+        return pathSegment.mutableParameters();
     }
 
-    private void assertPathElementsMatch(String indexedPathPart, int index) {
-        String pathSegmentPart = pathSegments.get(index).getPath();
-        if (!indexedPathPart.equals(pathSegmentPart)) {
-            throw new IllegalArgumentException(String.format(
-                "Path: '%s' at index %d does not match registered path: %s",
-                indexedPathPart, index, pathSegments
-            ));
+    private PathSegment recycleSegment() {
+        if (this.recycledSegments.isEmpty()) {
+            return PathSegment.empty();
         }
+
+        return this.recycledSegments.remove(this.recycledSegments.size() - 1);
+    }
+
+    private static int segmentStart(String path) {
+        return path.startsWith("/") ? 1 : 0;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return end == -1 ? path.length() : end;
     }
 
-    private static PathBuilder initialize(String path) {
-        path = StringUtils.removePrefix(path, "/");
+    private static String removeDotSegments(String path, boolean collapseEmptySegments) {
+        StringBuilder result = new StringBuilder(path.length() + 1);
+        int start = segmentStart(path);
+        while (true) {
+            int end = segmentEnd(path, start);
+            boolean last = end == path.length();
+            int dots = dotSegment(path, start, end);
 
-        PathBuilder builder = new PathBuilder();
-        String[] paths = path.split("/", -1);
-        for (String p : paths) {
-            builder.addSegment(p);
+            if (dots == 2) {
+                result.setLength(Math.max(result.lastIndexOf("/"), 0));
+            }
+
+            if (dots > 0) {
+                if (last) {
+                    result.append('/');
+                }
+            } else if (!collapseEmptySegments || last || end > start) {
+                result.append('/').append(path, start, end);
+            }
+
+            if (last) {
+                return result.toString();
+            }
+            start = end + 1;
         }
-        return builder;
+    }
+
+    private static int dotSegment(String segment) {
+        return segment == null ? 0 : dotSegment(segment, 0, segment.length());
+    }
+
+    // 1 for '.', 2 for '..' including their percent-encoded forms, 0 otherwise
+    private static int dotSegment(String path, int start, int end) {
+        int dots = 0;
+        int i = start;
+        while (i < end) {
+            if (path.charAt(i) == '.') {
+                i++;
+            } else if (end - i >= 3 && path.charAt(i) == '%' && path.charAt(i + 1) == '2'
+                && (path.charAt(i + 2) == 'e' || path.charAt(i + 2) == 'E')) {
+                i += 3;
+            } else {
+                return 0;
+            }
+
+            if (++dots > 2) {
+                return 0;
+            }
+        }
+        return dots;
+    }
+
+    private static boolean isVerbatim(String path) {
+        if (!path.startsWith("/")) {
+            return false;
+        }
+
+        int start = 1;
+        while (true) {
+            int end = segmentEnd(path, start);
+            if (end > start && isBlank(path, start, end)) {
+                return false;
+            }
+
+            if (end == path.length()) {
+                return true;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static boolean isBlank(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (path.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Data
     @AllArgsConstructor
+    @ToString(doNotUseGetters = true)
+    @EqualsAndHashCode(doNotUseGetters = true)
     static class PathSegment {
         private String path;
+
+        // null until the segment has parameters, so parameterless segments do not allocate a builder
         private ParameterBuilder parameters;
 
         static PathSegment empty() {
-            return new PathSegment(null, new ParameterBuilder());
+            return new PathSegment(null, null);
         }
 
         static PathSegment of(String path) {
-            if (path.contains(";")) {
-                String[] parts = path.split(";", 2);
-                return new PathSegment(parts[0], ParameterBuilder.of(parts[1], ";"));
+            return empty().reset(path);
+        }
+
+        PathSegment reset(String segment) {
+            int parametersIndex = segment.indexOf(';');
+            if (parametersIndex == -1) {
+                this.path = segment;
+                if (this.parameters != null) {
+                    this.parameters.clear();
+                }
+            } else {
+                this.path = segment.substring(0, parametersIndex);
+                mutableParameters().reset(segment.substring(parametersIndex + 1), ";");
+            }
+            return this;
+        }
+
+        boolean isEmpty() {
+            return (this.path == null || this.path.isEmpty()) && !hasParameters();
+        }
+
+        boolean hasParameters() {
+            return this.parameters != null && this.parameters.count() > 0;
+        }
+
+        /**
+         * Get the parameters of this segment, creating them if the segment has none yet.
+         *
+         * @return segment parameters
+         */
+        ParameterBuilder getParameters() {
+            return mutableParameters();
+        }
+
+        ParameterBuilder mutableParameters() {
+            if (this.parameters == null) {
+                this.parameters = new ParameterBuilder();
+            }
+            return this.parameters;
+        }
+
+        PathSegment copy() {
+            return new PathSegment(path, hasParameters() ? parameters.copy() : null);
+        }
+
+        boolean formatsAs(String segment) {
+            if (!this.path.isEmpty() && !StringUtils.hasText(this.path)) {
+                return false;
+            }
+
+            if (this.path.length() == segment.length()) {
+                return true;
             }
 
-            return new PathSegment(path, new ParameterBuilder());
+            String builtParameters = hasParameters() ? this.parameters.build(";") : null;
+            return StringUtils.hasText(builtParameters)
+                && builtParameters.length() == segment.length() - this.path.length() - 1
+                && segment.endsWith(builtParameters);
         }
 
         String format() {
@@ -302,7 +715,7 @@ public class PathBuilder {
                 result.append(this.path);
             }
 
-            String builtParameters = this.parameters.build(";");
+            String builtParameters = hasParameters() ? this.parameters.build(";") : null;
             if (StringUtils.hasText(builtParameters)) {
                 result.append(";").append(builtParameters);
             }
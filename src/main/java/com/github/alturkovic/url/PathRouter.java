@@ -0,0 +1,281 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Route paths to values registered under path templates.
+ * <p>
+ * Templates consist of '/' separated segments which can be literals ({@code users}), parameters ({@code {id}})
+ * matching exactly one non-empty segment or a trailing catch-all ({@code {*file}}) matching the non-empty remainder
+ * of the path. Literal segments take priority over parameters and parameters take priority over catch-alls.
+ * <p>
+ * Registered templates are stored in a radix tree and captured variables are reported as offsets into the routed
+ * path, so routing into a reused {@link RouteMatch} does not allocate.
+ * <p>
+ * Registration is not thread-safe, routing a fully registered router is.
+ *
+ * @param <T> type of the routed values
+ */
+public class PathRouter<T> {
+    private final Node<T> root = new Node<>("");
+    private int maxVariables;
+
+    /**
+     * Register {@code value} under the path {@code template}.
+     *
+     * @param template to register, e.g. {@code /users/{id}/orders/{orderId}}
+     * @param value    to route to
+     * @return this router
+     * @throws IllegalArgumentException if {@code template} is blank, malformed or already registered
+     */
+    public PathRouter<T> register(String template, T value) {
+        if (StringUtils.isBlank(template)) {
+            throw new IllegalArgumentException("Template cannot be undefined");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Routed value cannot be undefined");
+        }
+
+        Node<T> node = root;
+        List<String> variableNames = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        String[] segments = StringUtils.removePrefix(template, "/").split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            literal.append('/');
+
+            if (!isVariable(segment)) {
+                if (segment.indexOf('{') != -1 || segment.indexOf('}') != -1) {
+                    throw new IllegalArgumentException(String.format("Invalid segment '%s' in template: %s", segment, template));
+                }
+                literal.append(segment);
+                continue;
+            }
+
+            node = node.insertStatic(literal.toString());
+            literal.setLength(0);
+
+            String name = segment.substring(1, segment.length() - 1);
+            if (name.startsWith("*")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("Catch-all must be the last segment in template: " + template);
+                }
+                node = node.catchAll();
+                name = name.substring(1);
+            } else {
+                node = node.parameter();
+            }
+
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Unnamed variable in template: " + template);
+            }
+            variableNames.add(name);
+        }
+
+        if (literal.length() > 0) {
+            node = node.insertStatic(literal.toString());
+        }
+
+        if (node.value != null) {
+            throw new IllegalArgumentException("Template already registered: " + template);
+        }
+
+        node.value = value;
+        node.variableNames = variableNames.toArray(new String[0]);
+        maxVariables = Math.max(maxVariables, variableNames.size());
+        return this;
+    }
+
+    /**
+     * Create a new match holder that can be reused for routing.
+     *
+     * @return empty match
+     */
+    public RouteMatch<T> newMatch() {
+        return new RouteMatch<>(maxVariables);
+    }
+
+    /**
+     * Route the {@code path} into {@code match}.
+     * <p>
+     * This method does not allocate as long as {@code match} has enough capacity for all registered variables,
+     * which is always true for holders created using {@link #newMatch()} after all templates were registered.
+     *
+     * @param path  to route, without the query or fragment
+     * @param match to populate
+     * @return {@code true} if the path was routed, {@code false} otherwise
+     */
+    public boolean route(CharSequence path, RouteMatch<T> match) {
+        match.reset(path, maxVariables);
+        return path != null && root.matchChildren(path, 0, match, 0);
+    }
+
+    /**
+     * Route the {@code path}.
+     *
+     * @param path to route, without the query or fragment
+     * @return match if the path was routed
+     */
+    public Optional<RouteMatch<T>> route(CharSequence path) {
+        RouteMatch<T> match = newMatch();
+        return route(path, match) ? Optional.of(match) : Optional.empty();
+    }
+
+    /**
+     * Route the raw path of {@code url}.
+     *
+     * @param url to route
+     * @return match if the path was routed
+     */
+    public Optional<RouteMatch<T>> route(URI url) {
+        String path = url.getRawPath();
+        return route(StringUtils.isBlank(path) ? "/" : path);
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 1 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    private static final class Node<T> {
+        private String prefix;
+        private List<Node<T>> children = new ArrayList<>(0);
+        private Node<T> parameter;
+        private Node<T> catchAll;
+        private T value;
+        private String[] variableNames;
+
+        private Node(String prefix) {
+            this.prefix = prefix;
+        }
+
+        Node<T> insertStatic(String text) {
+            for (int i = 0; i < children.size(); i++) {
+                Node<T> child = children.get(i);
+                if (child.prefix.charAt(0) != text.charAt(0)) {
+                    continue;
+                }
+
+                int common = commonPrefixLength(child.prefix, text);
+                if (common < child.prefix.length()) {
+                    Node<T> split = new Node<>(child.prefix.substring(0, common));
+                    child.prefix = child.prefix.substring(common);
+                    split.children.add(child);
+                    children.set(i, split);
+                    child = split;
+                }
+
+                if (common == text.length()) {
+                    return child;
+                }
+                return child.insertStatic(text.substring(common));
+            }
+
+            Node<T> child = new Node<>(text);
+            children.add(child);
+            return child;
+        }
+
+        Node<T> parameter() {
+            if (parameter == null) {
+                parameter = new Node<>(null);
+            }
+            return parameter;
+        }
+
+        Node<T> catchAll() {
+            if (catchAll == null) {
+                catchAll = new Node<>(null);
+            }
+            return catchAll;
+        }
+
+        boolean matchChildren(CharSequence path, int position, RouteMatch<T> match, int depth) {
+            int length = path.length();
+            if (position == length) {
+                return value != null && match.complete(value, variableNames);
+            }
+
+            char next = path.charAt(position);
+            for (int i = 0; i < children.size(); i++) {
+                Node<T> child = children.get(i);
+                if (child.prefix.charAt(0) == next) {
+                    if (regionMatches(path, position, child.prefix)
+                        && child.matchChildren(path, position + child.prefix.length(), match, depth)) {
+                        return true;
+                    }
+                    break;
+                }
+            }
+
+            if (parameter != null && next != '/') {
+                int end = position;
+                while (end < length && path.charAt(end) != '/') {
+                    end++;
+                }
+
+                match.capture(depth, position, end);
+                if (parameter.matchChildren(path, end, match, depth + 1)) {
+                    return true;
+                }
+            }
+
+            if (catchAll != null) {
+                match.capture(depth, position, length);
+                return catchAll.matchChildren(path, length, match, depth + 1);
+            }
+
+            return false;
+        }
+
+        private static boolean regionMatches(CharSequence path, int offset, String prefix) {
+            int length = prefix.length();
+            if (path.length() - offset < length) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (path.charAt(offset + i) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int commonPrefixLength(String first, String second) {
+            int limit = Math.min(first.length(), second.length());
+            int i = 0;
+            while (i < limit && first.charAt(i) == second.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
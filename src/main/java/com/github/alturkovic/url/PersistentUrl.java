@@ -0,0 +1,518 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static com.github.alturkovic.url.DefaultPortMapper.getDefaultPort;
+
+/**
+ * Immutable url with structural sharing.
+ * <p>
+ * Every {@code with*()} method returns a new instance sharing all unchanged components with this one,
+ * so deriving variants of a base url allocates only the changed parts. Path segments and query parameters
+ * are kept in persistent chains, appending to them allocates a single link.
+ * <p>
+ * Values passed to {@code with*()} methods are used as they are, they should already be encoded.
+ * Instances can be freely shared between threads.
+ */
+public final class PersistentUrl {
+    private final String protocol;
+    private final String userInfo;
+    private final String host;
+    private final int port;
+    private final Chain<String> path;
+    private final Chain<UrlParameter> query;
+    private final String fragment;
+
+    private volatile String value;
+
+    private PersistentUrl(String protocol, String userInfo, String host, int port,
+                          Chain<String> path, Chain<UrlParameter> query, String fragment) {
+        this.protocol = protocol;
+        this.userInfo = userInfo;
+        this.host = host;
+        this.port = port;
+        this.path = path;
+        this.query = query;
+        this.fragment = fragment;
+    }
+
+    /**
+     * Parse a new url from {@code url}.
+     * <p>
+     * If the protocol is missing from it, 'https' will be used by default.
+     *
+     * @param url to parse
+     * @return url instance
+     */
+    public static PersistentUrl of(String url) {
+        return of(UrlBuilder.of(url));
+    }
+
+    /**
+     * Create a new url from {@code url}.
+     * <p>
+     * If the protocol is missing from it, 'https' will be used by default.
+     *
+     * @param url to create from
+     * @return url instance
+     */
+    public static PersistentUrl of(URI url) {
+        return of(UrlBuilder.of(url));
+    }
+
+    /**
+     * Create a new url from the current state of {@code builder}.
+     *
+     * @param builder to create from
+     * @return url instance
+     */
+    public static PersistentUrl of(UrlBuilder builder) {
+        Chain<String> path = null;
+        for (PathBuilder.PathSegment segment : builder.getPath().getPathSegments()) {
+            path = Chain.append(path, segment.format());
+        }
+
+        List<UrlParameter> parameters = new ArrayList<>(builder.getQuery().count());
+        builder.getQuery().forEach((name, value) -> parameters.add(new UrlParameter(name, value)));
+
+        Chain<UrlParameter> query = null;
+        for (UrlParameter parameter : parameters) {
+            query = Chain.append(query, parameter);
+        }
+
+        return new PersistentUrl(builder.getProtocol(), builder.getUserInfo().format(), builder.getHost().build(),
+            builder.getPort(), path, query, builder.getFragment());
+    }
+
+    /**
+     * Get the protocol.
+     *
+     * @return the protocol
+     */
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Get the user info.
+     *
+     * @return the user info
+     */
+    public Optional<String> getUserInfo() {
+        return Optional.ofNullable(userInfo);
+    }
+
+    /**
+     * Get the host.
+     *
+     * @return the host
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Get the port.
+     * <p>
+     * If it was not provided, the default port for the protocol will be returned.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return port == -1 ? getDefaultPort(protocol) : port;
+    }
+
+    /**
+     * Get the path.
+     *
+     * @return the path
+     */
+    public Optional<String> getPath() {
+        if (path == null) {
+            return Optional.empty();
+        }
+
+        StringBuilder result = new StringBuilder();
+        appendPath(result);
+        return Optional.of(result.toString());
+    }
+
+    /**
+     * Get the path segments including their matrix parameters.
+     *
+     * @return the path segments
+     */
+    public List<String> getPathSegments() {
+        return Chain.toList(path);
+    }
+
+    /**
+     * Get the query.
+     *
+     * @return the query
+     */
+    public Optional<String> getQuery() {
+        if (query == null) {
+            return Optional.empty();
+        }
+
+        StringBuilder result = new StringBuilder();
+        appendQuery(result);
+        return Optional.of(result.toString());
+    }
+
+    /**
+     * Get first parameter value for {@code name} parameter.
+     *
+     * @param name of the parameter
+     * @return first {@code name} parameter value
+     */
+    public Optional<String> getQueryParameter(String name) {
+        String found = null;
+        for (Chain<UrlParameter> link = query; link != null; link = link.previous) {
+            if (link.value.getName().equals(name)) {
+                found = link.value.getValue() == null ? "" : link.value.getValue();
+            }
+        }
+        return Optional.ofNullable(found);
+    }
+
+    /**
+     * Get the fragment.
+     *
+     * @return the fragment
+     */
+    public Optional<String> getFragment() {
+        return Optional.ofNullable(fragment);
+    }
+
+    /**
+     * Derive a url with the {@code protocol}.
+     *
+     * @param protocol to set
+     * @return derived url
+     * @throws IllegalArgumentException if {@code protocol} is blank, {@code null} or not {@code http(s)}
+     */
+    public PersistentUrl withProtocol(String protocol) {
+        return new PersistentUrl(UrlBuilder.normalizeProtocol(protocol), userInfo, host, port, path, query, fragment);
+    }
+
+    /**
+     * Derive a url with the {@code userInfo}.
+     *
+     * @param userInfo to set
+     * @return derived url
+     */
+    public PersistentUrl withUserInfo(String userInfo) {
+        return new PersistentUrl(protocol, StringUtils.isBlank(userInfo) ? null : userInfo, host, port, path, query, fragment);
+    }
+
+    /**
+     * Derive a url without the user info.
+     *
+     * @return derived url
+     */
+    public PersistentUrl withoutUserInfo() {
+        return withUserInfo(null);
+    }
+
+    /**
+     * Derive a url with the {@code host}.
+     *
+     * @param host to set
+     * @return derived url
+     * @throws IllegalArgumentException if {@code host} is blank
+     */
+    public PersistentUrl withHost(String host) {
+        return new PersistentUrl(protocol, userInfo, HostBuilder.of(host).build(), port, path, query, fragment);
+    }
+
+    /**
+     * Derive a url with the {@code port}.
+     *
+     * @param port to set
+     * @return derived url
+     */
+    public PersistentUrl withPort(int port) {
+        return new PersistentUrl(protocol, userInfo, host, port, path, query, fragment);
+    }
+
+    /**
+     * Derive a url without the port.
+     *
+     * @return derived url
+     */
+    public PersistentUrl withoutPort() {
+        return withPort(-1);
+    }
+
+    /**
+     * Derive a url with the {@code path}.
+     * <p>
+     * The provided {@code path} will be split using '/'.
+     *
+     * @param path to set
+     * @return derived url
+     */
+    public PersistentUrl withPath(String path) {
+        Chain<String> segments = null;
+        for (PathBuilder.PathSegment segment : PathBuilder.of(path).getPathSegments()) {
+            segments = Chain.append(segments, segment.format());
+        }
+        return new PersistentUrl(protocol, userInfo, host, port, segments, query, fragment);
+    }
+
+    /**
+     * Derive a url with the {@code segment} appended to the path.
+     *
+     * @param segment to append
+     * @return derived url
+     */
+    public PersistentUrl withPathSegment(String segment) {
+        return new PersistentUrl(protocol, userInfo, host, port, Chain.append(path, segment), query, fragment);
+    }
+
+    /**
+     * Derive a url without the path.
+     *
+     * @return derived url
+     */
+    public PersistentUrl withoutPath() {
+        return new PersistentUrl(protocol, userInfo, host, port, null, query, fragment);
+    }
+
+    /**
+     * Derive a url with the {@code name} query parameter set to {@code value}.
+     * <p>
+     * Existing {@code name} parameters are removed and the new one is appended.
+     *
+     * @param name  of the parameter
+     * @param value of the parameter
+     * @return derived url
+     */
+    public PersistentUrl withQueryParam(String name, String value) {
+        Chain<UrlParameter> remaining = Chain.removeIf(query, parameter -> parameter.getName().equals(name));
+        return new PersistentUrl(protocol, userInfo, host, port, path, Chain.append(remaining, UrlParameter.of(name, value)), fragment);
+    }
+
+    /**
+     * Derive a url with the {@code name} query parameter appended, keeping the existing ones.
+     *
+     * @param name  of the parameter
+     * @param value of the parameter
+     * @return derived url
+     */
+    public PersistentUrl withAddedQueryParam(String name, String value) {
+        return new PersistentUrl(protocol, userInfo, host, port, path, Chain.append(query, UrlParameter.of(name, value)), fragment);
+    }
+
+    /**
+     * Derive a url without the {@code name} query parameters.
+     *
+     * @param name of the parameter
+     * @return derived url
+     */
+    public PersistentUrl withoutQueryParam(String name) {
+        Chain<UrlParameter> remaining = Chain.removeIf(query, parameter -> parameter.getName().equals(name));
+        return remaining == query ? this : new PersistentUrl(protocol, userInfo, host, port, path, remaining, fragment);
+    }
+
+    /**
+     * Derive a url without the query.
+     *
+     * @return derived url
+     */
+    public PersistentUrl withoutQuery() {
+        return new PersistentUrl(protocol, userInfo, host, port, path, null, fragment);
+    }
+
+    /**
+     * Derive a url with the {@code fragment}.
+     *
+     * @param fragment to set
+     * @return derived url
+     */
+    public PersistentUrl withFragment(String fragment) {
+        return new PersistentUrl(protocol, userInfo, host, port, path, query, fragment);
+    }
+
+    /**
+     * Derive a url without the fragment.
+     *
+     * @return derived url
+     */
+    public PersistentUrl withoutFragment() {
+        return withFragment(null);
+    }
+
+    /**
+     * Convert this url to {@link URI}.
+     *
+     * @return this as {@link URI}
+     */
+    public URI toUri() {
+        return UrlParser.parse(toString());
+    }
+
+    /**
+     * Convert this url to {@link UrlBuilder}.
+     * <p>
+     * Changes to the builder won't affect this url.
+     *
+     * @return this as {@link UrlBuilder}
+     */
+    public UrlBuilder asBuilder() {
+        return UrlBuilder.of(toString());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        String result = value;
+        if (result == null) {
+            StringBuilder builder = new StringBuilder(protocol).append("://");
+            if (userInfo != null) {
+                builder.append(userInfo).append('@');
+            }
+            builder.append(host);
+            if (port != -1) {
+                builder.append(':').append(port);
+            }
+            appendPath(builder);
+            if (query != null) {
+                builder.append('?');
+                appendQuery(builder);
+            }
+            if (fragment != null) {
+                builder.append('#').append(fragment);
+            }
+            result = builder.toString();
+            value = result;
+        }
+        return result;
+    }
+
+    private void appendPath(StringBuilder builder) {
+        List<String> segments = Chain.toList(path);
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        if (!segments.get(0).startsWith(";")) {
+            builder.append('/');
+        }
+        builder.append(String.join("/", segments));
+    }
+
+    private void appendQuery(StringBuilder builder) {
+        List<UrlParameter> parameters = Chain.toList(query);
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                builder.append('&');
+            }
+            builder.append(parameters.get(i).format());
+        }
+    }
+
+    private static final class Chain<T> {
+        private final T value;
+        private final Chain<T> previous;
+        private final int size;
+
+        private Chain(T value, Chain<T> previous) {
+            this.value = value;
+            this.previous = previous;
+            this.size = previous == null ? 1 : previous.size + 1;
+        }
+
+        static <T> Chain<T> append(Chain<T> chain, T value) {
+            return new Chain<>(value, chain);
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Chain<T> removeIf(Chain<T> chain, Predicate<T> condition) {
+            if (chain == null) {
+                return null;
+            }
+
+            Object[] links = new Object[chain.size];
+            boolean[] removed = new boolean[chain.size];
+            int firstRemoved = -1;
+            for (Chain<T> link = chain; link != null; link = link.previous) {
+                links[link.size - 1] = link;
+                if (condition.test(link.value)) {
+                    removed[link.size - 1] = true;
+                    firstRemoved = link.size - 1;
+                }
+            }
+
+            if (firstRemoved == -1) {
+                return chain;
+            }
+
+            // links before the first removed one are shared, the rest are appended again
+            Chain<T> result = firstRemoved == 0 ? null : (Chain<T>) links[firstRemoved - 1];
+            for (int i = firstRemoved + 1; i < links.length; i++) {
+                if (!removed[i]) {
+                    result = new Chain<>(((Chain<T>) links[i]).value, result);
+                }
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> List<T> toList(Chain<T> chain) {
+            if (chain == null) {
+                return Collections.emptyList();
+            }
+
+            Object[] values = new Object[chain.size];
+            for (Chain<T> link = chain; link != null; link = link.previous) {
+                values[link.size - 1] = link.value;
+            }
+            return (List<T>) Collections.unmodifiableList(Arrays.asList(values));
+        }
+    }
+}
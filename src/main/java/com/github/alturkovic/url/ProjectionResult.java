@@ -0,0 +1,226 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Result of projecting a url using {@link UrlProjection}.
+ * <p>
+ * Components and parameters are exposed as offsets into the projected url and their values are not decoded.
+ * Instances are mutable and meant to be reused.
+ */
+@Getter
+public class ProjectionResult {
+    private static final UrlComponent[] COMPONENTS = UrlComponent.values();
+
+    private CharSequence url;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final UrlScanner scanner = new UrlScanner();
+
+    @Getter(AccessLevel.NONE)
+    private final int[] componentOffsets = new int[COMPONENTS.length * 2];
+
+    @Getter(AccessLevel.NONE)
+    private String[] parameterNames;
+
+    @Getter(AccessLevel.NONE)
+    private int[] parameterOffsets;
+
+    ProjectionResult(String[] parameterNames) {
+        this.parameterNames = parameterNames;
+        this.parameterOffsets = new int[parameterNames.length * 2];
+    }
+
+    /**
+     * Check if the {@code component} was requested and present in the url.
+     *
+     * @param component to check
+     * @return {@code true} if present, {@code false} otherwise
+     */
+    public boolean has(UrlComponent component) {
+        return componentOffsets[component.ordinal() * 2] != -1;
+    }
+
+    /**
+     * Get the start offset of the {@code component} in the projected url, inclusive.
+     *
+     * @param component to get the offset of
+     * @return start offset or -1 if not present
+     */
+    public int getStart(UrlComponent component) {
+        return componentOffsets[component.ordinal() * 2];
+    }
+
+    /**
+     * Get the end offset of the {@code component} in the projected url, exclusive.
+     *
+     * @param component to get the offset of
+     * @return end offset or -1 if not present
+     */
+    public int getEnd(UrlComponent component) {
+        return componentOffsets[component.ordinal() * 2 + 1];
+    }
+
+    /**
+     * Get the {@code component} as a view over the projected url.
+     *
+     * @param component to get
+     * @return component value or {@code null} if not present
+     */
+    public CharSequence get(UrlComponent component) {
+        return has(component) ? url.subSequence(getStart(component), getEnd(component)) : null;
+    }
+
+    /**
+     * Get the number of requested parameters.
+     *
+     * @return requested parameter count
+     */
+    public int getParameterCount() {
+        return parameterNames.length;
+    }
+
+    /**
+     * Get the name of the indexed parameter, in the order the parameters were requested.
+     *
+     * @param index of the parameter
+     * @return parameter name
+     */
+    public String getParameterName(int index) {
+        checkIndex(index);
+        return parameterNames[index];
+    }
+
+    /**
+     * Check if the indexed parameter was present in the url.
+     *
+     * @param index of the parameter
+     * @return {@code true} if present, {@code false} otherwise
+     */
+    public boolean hasParameter(int index) {
+        return getParameterStart(index) != -1;
+    }
+
+    /**
+     * Get the start offset of the indexed parameter value in the projected url, inclusive.
+     *
+     * @param index of the parameter
+     * @return start offset or -1 if not present
+     */
+    public int getParameterStart(int index) {
+        checkIndex(index);
+        return parameterOffsets[index * 2];
+    }
+
+    /**
+     * Get the end offset of the indexed parameter value in the projected url, exclusive.
+     *
+     * @param index of the parameter
+     * @return end offset or -1 if not present
+     */
+    public int getParameterEnd(int index) {
+        checkIndex(index);
+        return parameterOffsets[index * 2 + 1];
+    }
+
+    /**
+     * Get the index of the parameter named {@code name}.
+     *
+     * @param name of the parameter
+     * @return parameter index or -1 if not requested
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (parameterNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the raw value of the indexed parameter as a view over the projected url.
+     *
+     * @param index of the parameter
+     * @return parameter value or {@code null} if not present
+     */
+    public CharSequence getParameter(int index) {
+        return hasParameter(index) ? url.subSequence(getParameterStart(index), getParameterEnd(index)) : null;
+    }
+
+    /**
+     * Get the raw value of the parameter named {@code name} as a view over the projected url.
+     *
+     * @param name of the parameter
+     * @return parameter value or {@code null} if not requested or not present
+     */
+    public CharSequence getParameter(String name) {
+        int index = indexOf(name);
+        return index == -1 ? null : getParameter(index);
+    }
+
+    /**
+     * Get the percent-decoded value of the indexed parameter.
+     *
+     * @param index of the parameter
+     * @return decoded parameter value or {@code null} if not present
+     */
+    public String getDecodedParameter(int index) {
+        CharSequence value = getParameter(index);
+        return value == null ? null : UrlParseUtils.percentDecode(value.toString());
+    }
+
+    void reset(CharSequence url, String[] parameterNames) {
+        this.url = url;
+        if (this.parameterNames != parameterNames) {
+            this.parameterNames = parameterNames;
+            if (parameterOffsets.length < parameterNames.length * 2) {
+                parameterOffsets = new int[parameterNames.length * 2];
+            }
+        }
+        Arrays.fill(componentOffsets, -1);
+        Arrays.fill(parameterOffsets, -1);
+    }
+
+    void component(UrlComponent component, int start, int end) {
+        componentOffsets[component.ordinal() * 2] = start;
+        componentOffsets[component.ordinal() * 2 + 1] = end;
+    }
+
+    void parameter(int index, int start, int end) {
+        parameterOffsets[index * 2] = start;
+        parameterOffsets[index * 2 + 1] = end;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= parameterNames.length) {
+            throw new IndexOutOfBoundsException("Parameter index: " + index + ", count: " + parameterNames.length);
+        }
+    }
+}
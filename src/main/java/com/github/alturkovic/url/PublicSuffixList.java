@@ -0,0 +1,362 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.IDN;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <a href="https://publicsuffix.org/">Public Suffix List</a> compiled into a trie of reversed host labels.
+ * <p>
+ * The trie is stored in flat arrays: nodes are numbered in breadth-first order so the children of each node are
+ * contiguous and sorted, and all labels share one character array. Hosts are matched label by label from the right
+ * without creating substrings, only the final result is extracted from the host.
+ * <p>
+ * Rules from both the ICANN and private sections of the bundled list are used. Internationalized rules are also
+ * registered in their punycode form. Instances are immutable and can be shared between threads.
+ */
+final class PublicSuffixList {
+    private static final String RESOURCE = "public_suffix_list.dat";
+
+    private static final byte RULE = 1;
+    private static final byte WILDCARD = 2;
+    private static final byte EXCEPTION = 4;
+
+    private final int[] childOffsets;
+    private final int[] labelOffsets;
+    private final char[] labels;
+    private final byte[] flags;
+
+    private PublicSuffixList(int[] childOffsets, int[] labelOffsets, char[] labels, byte[] flags) {
+        this.childOffsets = childOffsets;
+        this.labelOffsets = labelOffsets;
+        this.labels = labels;
+        this.flags = flags;
+    }
+
+    /**
+     * Get the list compiled from the bundled Public Suffix List, loading it on first use.
+     *
+     * @return shared list instance
+     */
+    static PublicSuffixList getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Compile the list from {@code reader} using the Public Suffix List format.
+     *
+     * @param reader to read the rules from
+     * @return compiled list
+     */
+    static PublicSuffixList parse(BufferedReader reader) {
+        Builder builder = new Builder();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("//")) {
+                    continue;
+                }
+
+                int whitespace = indexOfWhitespace(line);
+                builder.add(whitespace == -1 ? line : line.substring(0, whitespace));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read public suffix list", e);
+        }
+        return builder.compile();
+    }
+
+    /**
+     * Get the public suffix of {@code host}, e.g. 'co.uk' for 'news.bbc.co.uk'.
+     * <p>
+     * Hosts not matching any rule use their last label as the public suffix.
+     *
+     * @param host to get the public suffix of
+     * @return public suffix or {@code null} if {@code host} is an IP address
+     */
+    String getPublicSuffix(String host) {
+        int end = hostEnd(host);
+        int start = publicSuffixStart(host, 0, end);
+        return start == -1 ? null : host.substring(start, end);
+    }
+
+    /**
+     * Get the registrable domain of {@code host}, i.e. its public suffix and one more label,
+     * e.g. 'bbc.co.uk' for 'news.bbc.co.uk'.
+     *
+     * @param host to get the registrable domain of
+     * @return registrable domain or {@code null} if {@code host} is a public suffix or an IP address
+     */
+    String getRegistrableDomain(String host) {
+        int end = hostEnd(host);
+        int start = registrableDomainStart(host, 0, end);
+        return start == -1 ? null : host.substring(start, end);
+    }
+
+    /**
+     * Find the registrable domain of the host between {@code start} and {@code end} without a trailing dot.
+     *
+     * @return start of the registrable domain or -1 if the host is a public suffix or an IP address
+     */
+    int registrableDomainStart(CharSequence host, int start, int end) {
+        int suffixStart = publicSuffixStart(host, start, end);
+        if (suffixStart <= start) {
+            return -1;
+        }
+
+        return lastIndexOfDot(host, start, suffixStart - 2) + 1;
+    }
+
+    private int publicSuffixStart(CharSequence host, int start, int end) {
+        if (end == start || host.charAt(start) == '[' || isNumeric(host, lastIndexOfDot(host, start, end - 1) + 1, end)) {
+            return -1;
+        }
+
+        int node = 0;
+        int labelEnd = end;
+        int labelStart = lastIndexOfDot(host, start, end - 1) + 1;
+        int suffixStart = labelStart;
+
+        while (true) {
+            if ((flags[node] & WILDCARD) != 0) {
+                suffixStart = Math.min(suffixStart, labelStart);
+            }
+
+            node = findChild(node, host, labelStart, labelEnd);
+            if (node == -1) {
+                return suffixStart;
+            }
+
+            if ((flags[node] & EXCEPTION) != 0) {
+                return labelEnd + 1;
+            }
+
+            if ((flags[node] & RULE) != 0) {
+                suffixStart = Math.min(suffixStart, labelStart);
+            }
+
+            if (labelStart == start) {
+                return suffixStart;
+            }
+
+            labelEnd = labelStart - 1;
+            labelStart = lastIndexOfDot(host, start, labelEnd - 1) + 1;
+        }
+    }
+
+    private int findChild(int node, CharSequence host, int start, int end) {
+        int low = childOffsets[node];
+        int high = childOffsets[node + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareLabel(middle, host, start, end);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compareLabel(int node, CharSequence host, int start, int end) {
+        int labelStart = labelOffsets[node];
+        int labelLength = labelOffsets[node + 1] - labelStart;
+        int length = Math.min(labelLength, end - start);
+        for (int i = 0; i < length; i++) {
+            char c = host.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+
+            int difference = labels[labelStart + i] - c;
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return labelLength - (end - start);
+    }
+
+    private static int hostEnd(String host) {
+        return host.endsWith(".") ? host.length() - 1 : host.length();
+    }
+
+    // index of the last '.' at or before 'from', start - 1 if there is none
+    private static int lastIndexOfDot(CharSequence host, int start, int from) {
+        for (int i = from; i >= start; i--) {
+            if (host.charAt(i) == '.') {
+                return i;
+            }
+        }
+        return start - 1;
+    }
+
+    private static boolean isNumeric(CharSequence host, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = host.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOfWhitespace(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (Character.isWhitespace(line.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class DefaultHolder {
+        private static final PublicSuffixList INSTANCE = load();
+
+        private static PublicSuffixList load() {
+            InputStream stream = PublicSuffixList.class.getResourceAsStream(RESOURCE);
+            if (stream == null) {
+                throw new IllegalStateException("Missing bundled public suffix list: " + RESOURCE);
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, UTF_8))) {
+                return parse(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read public suffix list", e);
+            }
+        }
+    }
+
+    private static final class Builder {
+        private final Node root = new Node();
+
+        void add(String rule) {
+            byte flag = RULE;
+            if (rule.startsWith("!")) {
+                flag = EXCEPTION;
+                rule = rule.substring(1);
+            } else if (rule.startsWith("*.")) {
+                flag = WILDCARD;
+                rule = rule.substring(2);
+            }
+
+            rule = rule.toLowerCase();
+            insert(rule, flag);
+
+            String ascii = toAscii(rule);
+            if (ascii != null && !ascii.equals(rule)) {
+                insert(ascii, flag);
+            }
+        }
+
+        private static String toAscii(String rule) {
+            try {
+                return IDN.toASCII(rule, IDN.ALLOW_UNASSIGNED);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private void insert(String rule, byte flag) {
+            Node node = root;
+            int end = rule.length();
+            while (end > 0) {
+                int start = rule.lastIndexOf('.', end - 1) + 1;
+                node = node.children.computeIfAbsent(rule.substring(start, end), label -> new Node());
+                end = start - 1;
+            }
+            node.flags |= flag;
+        }
+
+        PublicSuffixList compile() {
+            List<Node> nodes = new ArrayList<>();
+            List<String> nodeLabels = new ArrayList<>();
+            Deque<Node> queue = new ArrayDeque<>();
+            nodes.add(root);
+            nodeLabels.add("");
+            queue.add(root);
+
+            // breadth-first numbering keeps the sorted children of every node contiguous
+            int[] firstChild = new int[countNodes(root)];
+            int index = 0;
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                firstChild[index++] = nodes.size();
+                for (Map.Entry<String, Node> child : node.children.entrySet()) {
+                    nodes.add(child.getValue());
+                    nodeLabels.add(child.getKey());
+                    queue.add(child.getValue());
+                }
+            }
+
+            int size = nodes.size();
+            int[] childOffsets = new int[size + 1];
+            System.arraycopy(firstChild, 0, childOffsets, 0, size);
+            childOffsets[size] = size;
+
+            int[] labelOffsets = new int[size + 1];
+            byte[] flags = new byte[size];
+            StringBuilder labels = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                labelOffsets[i] = labels.length();
+                labels.append(nodeLabels.get(i));
+                flags[i] = nodes.get(i).flags;
+            }
+            labelOffsets[size] = labels.length();
+
+            char[] labelChars = new char[labels.length()];
+            labels.getChars(0, labels.length(), labelChars, 0);
+            return new PublicSuffixList(childOffsets, labelOffsets, labelChars, flags);
+        }
+
+        private static int countNodes(Node node) {
+            int count = 1;
+            for (Node child : node.children.values()) {
+                count += countNodes(child);
+            }
+            return count;
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new TreeMap<>();
+        private byte flags;
+    }
+}
@@ -0,0 +1,694 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set of regular expressions compiled into a single lazily constructed DFA.
+ * <p>
+ * Patterns are searched for anywhere in the input unless anchored using '^' or '$'. Supported syntax:
+ * literals, '.', character classes with ranges and negation, escapes ('\d', '\w', '\s' and their negations),
+ * groups (optionally '(?:'), alternation, greedy quantifiers ('*', '+', '?', '{m}', '{m,}', '{m,n}'),
+ * anchors and a leading '(?i)' for ASCII case-insensitive matching.
+ * <p>
+ * DFA states are built on demand and cached, the cache is discarded once it grows over the configured bound.
+ */
+final class RegexDfa {
+    private static final int CHAR = 0;
+    private static final int SPLIT = 1;
+    private static final int BEGIN = 2;
+    private static final int END = 3;
+    private static final int MATCH = 4;
+
+    private static final int ASCII = 128;
+    private static final int MAX_REPETITIONS = 1000;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final int[] types;
+    private final int[][] ranges;
+    private final int[][] outs;
+    private final int[] categories;
+    private final int[] starts;
+
+    private final int maximumStates;
+    private final Map<StateKey, State> states = new ConcurrentHashMap<>();
+    private volatile State initial;
+
+    RegexDfa(List<String> patterns, List<Integer> patternCategories, int maximumStates) {
+        Nfa nfa = new Nfa();
+        this.starts = new int[patterns.size()];
+        for (int i = 0; i < patterns.size(); i++) {
+            Node node = new Parser(patterns.get(i)).parse();
+            int match = nfa.add(MATCH, null, null, patternCategories.get(i));
+            this.starts[i] = nfa.compile(node, match);
+        }
+
+        this.types = nfa.types.stream().mapToInt(Integer::intValue).toArray();
+        this.ranges = nfa.ranges.toArray(new int[0][]);
+        this.outs = nfa.outs.toArray(new int[0][]);
+        this.categories = nfa.categories.stream().mapToInt(Integer::intValue).toArray();
+        this.maximumStates = maximumStates;
+        this.initial = createInitial();
+    }
+
+    static void validate(String pattern) {
+        new Parser(pattern).parse();
+    }
+
+    /**
+     * Mark the categories of all patterns found in {@code text}.
+     *
+     * @param text   to search
+     * @param result to mark found categories in
+     */
+    void match(CharSequence text, BitSet result) {
+        State state = initial;
+        mark(state.matches, result);
+
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            mark(state.matches, result);
+        }
+
+        mark(endMatches(state), result);
+    }
+
+    int cachedStates() {
+        return states.size();
+    }
+
+    private State next(State state, char c) {
+        State next;
+        if (c < ASCII) {
+            next = state.ascii[c];
+            if (next == null) {
+                next = step(state, c);
+                state.ascii[c] = next;
+            }
+            return next;
+        }
+
+        Map<Character, State> others = state.others();
+        next = others.get(c);
+        if (next == null) {
+            next = step(state, c);
+            others.put(c, next);
+        }
+        return next;
+    }
+
+    private State step(State state, char c) {
+        Closure closure = new Closure(false, false);
+        for (int member : state.members) {
+            if (types[member] == CHAR && contains(ranges[member], c)) {
+                closure.push(outs[member][0]);
+            }
+        }
+        for (int start : starts) {
+            closure.push(start);
+        }
+
+        int[] members = closure.run();
+        StateKey key = new StateKey(members);
+        State cached = states.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (states.size() >= maximumStates) {
+            states.clear();
+            initial = createInitial();
+        }
+
+        State created = new State(members, matchesOf(members), false);
+        State previous = states.putIfAbsent(key, created);
+        return previous == null ? created : previous;
+    }
+
+    private State createInitial() {
+        Closure closure = new Closure(true, false);
+        for (int start : starts) {
+            closure.push(start);
+        }
+
+        int[] members = closure.run();
+        return new State(members, matchesOf(members), true);
+    }
+
+    private int[] endMatches(State state) {
+        int[] matches = state.endMatches;
+        if (matches != null) {
+            return matches;
+        }
+
+        Closure closure = new Closure(state.initial, true);
+        for (int member : state.members) {
+            if (types[member] == END) {
+                closure.push(member);
+            }
+        }
+
+        matches = matchesOf(closure.run());
+        state.endMatches = matches;
+        return matches;
+    }
+
+    private int[] matchesOf(int[] members) {
+        BitSet found = null;
+        for (int member : members) {
+            if (types[member] == MATCH) {
+                if (found == null) {
+                    found = new BitSet();
+                }
+                found.set(categories[member]);
+            }
+        }
+        return found == null ? NO_MATCHES : found.stream().toArray();
+    }
+
+    private static void mark(int[] matches, BitSet result) {
+        for (int match : matches) {
+            result.set(match);
+        }
+    }
+
+    private static boolean contains(int[] ranges, char c) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (c < ranges[i]) {
+                return false;
+            }
+            if (c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class Closure {
+        private final boolean atStart;
+        private final boolean atEnd;
+        private final BitSet visited = new BitSet(types.length);
+        private int[] stack = new int[16];
+        private int size;
+
+        private Closure(boolean atStart, boolean atEnd) {
+            this.atStart = atStart;
+            this.atEnd = atEnd;
+        }
+
+        void push(int state) {
+            if (size == stack.length) {
+                stack = Arrays.copyOf(stack, size * 2);
+            }
+            stack[size++] = state;
+        }
+
+        int[] run() {
+            BitSet members = new BitSet(types.length);
+            while (size > 0) {
+                int state = stack[--size];
+                if (visited.get(state)) {
+                    continue;
+                }
+                visited.set(state);
+
+                switch (types[state]) {
+                    case SPLIT:
+                        for (int out : outs[state]) {
+                            push(out);
+                        }
+                        break;
+                    case BEGIN:
+                        if (atStart) {
+                            push(outs[state][0]);
+                        }
+                        break;
+                    case END:
+                        if (atEnd) {
+                            push(outs[state][0]);
+                        } else {
+                            members.set(state);
+                        }
+                        break;
+                    default:
+                        members.set(state);
+                }
+            }
+            return members.stream().toArray();
+        }
+    }
+
+    private static final class State {
+        private final int[] members;
+        private final int[] matches;
+        private final boolean initial;
+        private final State[] ascii = new State[ASCII];
+        private volatile Map<Character, State> others;
+        private volatile int[] endMatches;
+
+        private State(int[] members, int[] matches, boolean initial) {
+            this.members = members;
+            this.matches = matches;
+            this.initial = initial;
+        }
+
+        Map<Character, State> others() {
+            Map<Character, State> result = others;
+            if (result == null) {
+                synchronized (this) {
+                    result = others;
+                    if (result == null) {
+                        result = new ConcurrentHashMap<>();
+                        others = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] members;
+        private final int hash;
+
+        private StateKey(int[] members) {
+            this.members = members;
+            this.hash = Arrays.hashCode(members);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(members, ((StateKey) o).members);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Nfa {
+        private final List<Integer> types = new ArrayList<>();
+        private final List<int[]> ranges = new ArrayList<>();
+        private final List<int[]> outs = new ArrayList<>();
+        private final List<Integer> categories = new ArrayList<>();
+
+        int add(int type, int[] ranges, int[] outs, int category) {
+            this.types.add(type);
+            this.ranges.add(ranges);
+            this.outs.add(outs);
+            this.categories.add(category);
+            return this.types.size() - 1;
+        }
+
+        int compile(Node node, int next) {
+            switch (node.kind) {
+                case Node.SET:
+                    return add(CHAR, node.ranges, new int[]{next}, -1);
+                case Node.BEGIN:
+                    return add(BEGIN, null, new int[]{next}, -1);
+                case Node.END:
+                    return add(END, null, new int[]{next}, -1);
+                case Node.CONCAT:
+                    for (int i = node.children.length - 1; i >= 0; i--) {
+                        next = compile(node.children[i], next);
+                    }
+                    return next;
+                case Node.ALTERNATION:
+                    int[] alternatives = new int[node.children.length];
+                    for (int i = 0; i < alternatives.length; i++) {
+                        alternatives[i] = compile(node.children[i], next);
+                    }
+                    return add(SPLIT, null, alternatives, -1);
+                case Node.REPEAT:
+                    return compileRepeat(node, next);
+                default:
+                    return next;
+            }
+        }
+
+        private int compileRepeat(Node node, int next) {
+            Node child = node.children[0];
+            int tail;
+            if (node.max == -1) {
+                tail = add(SPLIT, null, null, -1);
+                outs.set(tail, new int[]{compile(child, tail), next});
+            } else {
+                tail = next;
+                for (int i = 0; i < node.max - node.min; i++) {
+                    tail = add(SPLIT, null, new int[]{compile(child, tail), next}, -1);
+                }
+            }
+
+            for (int i = 0; i < node.min; i++) {
+                tail = compile(child, tail);
+            }
+            return tail;
+        }
+    }
+
+    private static final class Node {
+        static final int EMPTY = 0;
+        static final int SET = 1;
+        static final int CONCAT = 2;
+        static final int ALTERNATION = 3;
+        static final int REPEAT = 4;
+        static final int BEGIN = 5;
+        static final int END = 6;
+
+        private final int kind;
+        private final Node[] children;
+        private final int[] ranges;
+        private final int min;
+        private final int max;
+
+        private Node(int kind, Node[] children, int[] ranges, int min, int max) {
+            this.kind = kind;
+            this.children = children;
+            this.ranges = ranges;
+            this.min = min;
+            this.max = max;
+        }
+
+        static Node of(int kind) {
+            return new Node(kind, null, null, 0, 0);
+        }
+
+        static Node set(int[] ranges) {
+            return new Node(SET, null, ranges, 0, 0);
+        }
+
+        static Node group(int kind, List<Node> children) {
+            if (children.isEmpty()) {
+                return of(EMPTY);
+            }
+            if (children.size() == 1) {
+                return children.get(0);
+            }
+            return new Node(kind, children.toArray(new Node[0]), null, 0, 0);
+        }
+
+        static Node repeat(Node child, int min, int max) {
+            return new Node(REPEAT, new Node[]{child}, null, min, max);
+        }
+    }
+
+    private static final class Parser {
+        private static final int[] DIGITS = {'0', '9'};
+        private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+        private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+
+        private final String pattern;
+        private final boolean ignoreCase;
+        private int position;
+
+        private Parser(String pattern) {
+            if (pattern == null) {
+                throw new IllegalArgumentException("Pattern cannot be undefined");
+            }
+
+            this.ignoreCase = pattern.startsWith("(?i)");
+            this.pattern = pattern;
+            this.position = ignoreCase ? 4 : 0;
+        }
+
+        Node parse() {
+            Node node = alternation();
+            if (position < pattern.length()) {
+                throw error("Unmatched ')'");
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(concatenation());
+            while (peek('|')) {
+                position++;
+                alternatives.add(concatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Node(Node.ALTERNATION, alternatives.toArray(new Node[0]), null, 0, 0);
+        }
+
+        private Node concatenation() {
+            List<Node> items = new ArrayList<>();
+            while (position < pattern.length() && !peek('|') && !peek(')')) {
+                items.add(repetition());
+            }
+            return Node.group(Node.CONCAT, items);
+        }
+
+        private Node repetition() {
+            Node node = atom();
+            while (position < pattern.length()) {
+                char c = pattern.charAt(position);
+                if (c == '*') {
+                    node = Node.repeat(node, 0, -1);
+                } else if (c == '+') {
+                    node = Node.repeat(node, 1, -1);
+                } else if (c == '?') {
+                    node = Node.repeat(node, 0, 1);
+                } else if (c == '{' && isBoundedRepetition()) {
+                    node = boundedRepetition(node);
+                    continue;
+                } else {
+                    break;
+                }
+
+                position++;
+                if (peek('?')) {
+                    position++;
+                }
+            }
+            return node;
+        }
+
+        private boolean isBoundedRepetition() {
+            int end = pattern.indexOf('}', position);
+            return end != -1 && pattern.substring(position + 1, end).matches("\\d+(,\\d*)?");
+        }
+
+        private Node boundedRepetition(Node node) {
+            int end = pattern.indexOf('}', position);
+            String[] bounds = pattern.substring(position + 1, end).split(",", -1);
+            position = end + 1;
+
+            int min = Integer.parseInt(bounds[0]);
+            int max = bounds.length == 1 ? min : bounds[1].isEmpty() ? -1 : Integer.parseInt(bounds[1]);
+            if (min > MAX_REPETITIONS || max > MAX_REPETITIONS || (max != -1 && max < min)) {
+                throw error("Invalid repetition bounds");
+            }
+
+            if (peek('?')) {
+                position++;
+            }
+            return Node.repeat(node, min, max);
+        }
+
+        private Node atom() {
+            char c = pattern.charAt(position++);
+            switch (c) {
+                case '(':
+                    if (pattern.startsWith("?:", position)) {
+                        position += 2;
+                    }
+                    Node group = alternation();
+                    if (!peek(')')) {
+                        throw error("Unclosed group");
+                    }
+                    position++;
+                    return group;
+                case '[':
+                    return Node.set(characterClass());
+                case '.':
+                    return Node.set(new int[]{0, '\n' - 1, '\n' + 1, Character.MAX_VALUE});
+                case '^':
+                    return Node.of(Node.BEGIN);
+                case '$':
+                    return Node.of(Node.END);
+                case '\\':
+                    return Node.set(escape());
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw error("Dangling quantifier");
+                default:
+                    return Node.set(literal(c));
+            }
+        }
+
+        private int[] characterClass() {
+            boolean negated = peek('^');
+            if (negated) {
+                position++;
+            }
+
+            List<int[]> items = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (position >= pattern.length()) {
+                    throw error("Unclosed character class");
+                }
+
+                char c = pattern.charAt(position++);
+                if (c == ']' && !first) {
+                    break;
+                }
+                first = false;
+
+                if (c == '\\') {
+                    items.add(escape());
+                    continue;
+                }
+
+                if (peek('-') && position + 1 < pattern.length() && pattern.charAt(position + 1) != ']') {
+                    char to = pattern.charAt(position + 1);
+                    position += 2;
+                    if (to < c) {
+                        throw error("Invalid character range");
+                    }
+                    items.add(fold(new int[]{c, to}));
+                } else {
+                    items.add(literal(c));
+                }
+            }
+
+            int[] ranges = union(items);
+            return negated ? complement(ranges) : ranges;
+        }
+
+        private int[] escape() {
+            if (position >= pattern.length()) {
+                throw error("Trailing escape");
+            }
+
+            char c = pattern.charAt(position++);
+            switch (c) {
+                case 'd':
+                    return DIGITS;
+                case 'D':
+                    return complement(DIGITS);
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return complement(WORD);
+                case 's':
+                    return SPACE;
+                case 'S':
+                    return complement(SPACE);
+                case 't':
+                    return new int[]{'\t', '\t'};
+                case 'n':
+                    return new int[]{'\n', '\n'};
+                case 'r':
+                    return new int[]{'\r', '\r'};
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        throw error("Unsupported escape '\\" + c + "'");
+                    }
+                    return literal(c);
+            }
+        }
+
+        private int[] literal(char c) {
+            return fold(new int[]{c, c});
+        }
+
+        private int[] fold(int[] range) {
+            if (!ignoreCase) {
+                return range;
+            }
+
+            List<int[]> folded = new ArrayList<>();
+            folded.add(range);
+            addShifted(folded, range, 'a', 'z', 'A' - 'a');
+            addShifted(folded, range, 'A', 'Z', 'a' - 'A');
+            return union(folded);
+        }
+
+        private static void addShifted(List<int[]> target, int[] range, int from, int to, int shift) {
+            int low = Math.max(range[0], from);
+            int high = Math.min(range[1], to);
+            if (low <= high) {
+                target.add(new int[]{low + shift, high + shift});
+            }
+        }
+
+        private static int[] union(List<int[]> items) {
+            List<int[]> pairs = new ArrayList<>();
+            for (int[] item : items) {
+                for (int i = 0; i < item.length; i += 2) {
+                    pairs.add(new int[]{item[i], item[i + 1]});
+                }
+            }
+            pairs.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+            int[] result = new int[pairs.size() * 2];
+            int size = 0;
+            for (int[] pair : pairs) {
+                if (size > 0 && pair[0] <= result[size - 1] + 1) {
+                    result[size - 1] = Math.max(result[size - 1], pair[1]);
+                } else {
+                    result[size++] = pair[0];
+                    result[size++] = pair[1];
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        private static int[] complement(int[] ranges) {
+            int[] result = new int[ranges.length + 2];
+            int size = 0;
+            int next = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > next) {
+                    result[size++] = next;
+                    result[size++] = ranges[i] - 1;
+                }
+                next = ranges[i + 1] + 1;
+            }
+            if (next <= Character.MAX_VALUE) {
+                result[size++] = next;
+                result[size++] = Character.MAX_VALUE;
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        private boolean peek(char c) {
+            return position < pattern.length() && pattern.charAt(position) == c;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(String.format("%s at index %d in pattern: %s", message, position, pattern));
+        }
+    }
+}
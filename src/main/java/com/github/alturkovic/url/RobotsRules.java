@@ -0,0 +1,251 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compiled robots.txt rules for a single user agent.
+ * <p>
+ * Rules follow the <a href="https://www.rfc-editor.org/rfc/rfc9309">robots exclusion protocol</a> semantics:
+ * '*' matches any sequence of characters, a trailing '$' anchors the rule to the end of the path,
+ * the longest matching rule wins and 'Allow' wins over 'Disallow' when equally long.
+ * <p>
+ * Instances are immutable and can be shared between threads and cached per host.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RobotsRules {
+    private static final RobotsRules ALLOW_ALL = new RobotsRules(new Rule[0]);
+    private static final String ROBOTS_PATH = "/robots.txt";
+
+    private final Rule[] rules;
+
+    /**
+     * Rules allowing every path.
+     *
+     * @return rules allowing everything
+     */
+    public static RobotsRules allowAll() {
+        return ALLOW_ALL;
+    }
+
+    /**
+     * Compile the rules from {@code robotsTxt} applying to {@code userAgent}.
+     * <p>
+     * Groups naming {@code userAgent} (case-insensitive) are merged and used, otherwise the '*' groups are used.
+     *
+     * @param robotsTxt content of the robots.txt file
+     * @param userAgent product token of the crawler, e.g. 'googlebot'
+     * @return compiled rules
+     */
+    public static RobotsRules parse(String robotsTxt, String userAgent) {
+        if (StringUtils.isBlank(robotsTxt)) {
+            return ALLOW_ALL;
+        }
+
+        String agent = userAgent == null ? "*" : userAgent.trim().toLowerCase();
+        List<Rule> agentRules = new ArrayList<>();
+        List<Rule> wildcardRules = new ArrayList<>();
+        boolean agentMatched = false;
+
+        boolean appliesToAgent = false;
+        boolean appliesToWildcard = false;
+        boolean readingAgents = false;
+
+        for (String line : robotsTxt.split("\r\n|\r|\n")) {
+            int commentIndex = line.indexOf('#');
+            if (commentIndex != -1) {
+                line = line.substring(0, commentIndex);
+            }
+
+            int colonIndex = line.indexOf(':');
+            if (colonIndex == -1) {
+                continue;
+            }
+
+            String key = line.substring(0, colonIndex).trim().toLowerCase();
+            String value = line.substring(colonIndex + 1).trim();
+
+            if (key.equals("user-agent")) {
+                if (!readingAgents) {
+                    appliesToAgent = false;
+                    appliesToWildcard = false;
+                    readingAgents = true;
+                }
+
+                String groupAgent = value.toLowerCase();
+                if (groupAgent.equals(agent)) {
+                    appliesToAgent = true;
+                    agentMatched = true;
+                } else if (groupAgent.equals("*")) {
+                    appliesToWildcard = true;
+                }
+                continue;
+            }
+
+            readingAgents = false;
+
+            boolean allow = key.equals("allow");
+            if ((!allow && !key.equals("disallow")) || value.isEmpty()) {
+                continue;
+            }
+
+            Rule rule = Rule.compile(value, allow);
+            if (appliesToAgent) {
+                agentRules.add(rule);
+            }
+            if (appliesToWildcard) {
+                wildcardRules.add(rule);
+            }
+        }
+
+        return compile(agentMatched ? agentRules : wildcardRules);
+    }
+
+    /**
+     * Check if the {@code url} can be crawled.
+     * <p>
+     * The path and query are matched as they appear in the url, without decoding them.
+     *
+     * @param url to check
+     * @return {@code true} if allowed, {@code false} otherwise
+     */
+    public boolean isAllowed(UrlParser url) {
+        return isAllowed(url.getRawPathAndQuery());
+    }
+
+    /**
+     * Check if the {@code url} can be crawled.
+     * <p>
+     * The path and query are matched as they appear in the url, without decoding them.
+     *
+     * @param url to check
+     * @return {@code true} if allowed, {@code false} otherwise
+     */
+    public boolean isAllowed(URI url) {
+        String path = StringUtils.isBlank(url.getRawPath()) ? "/" : url.getRawPath();
+        return isAllowed(url.getRawQuery() == null ? path : path + "?" + url.getRawQuery());
+    }
+
+    /**
+     * Check if the path with an optional query can be crawled.
+     *
+     * @param pathAndQuery to check, e.g. '/search?q=url'
+     * @return {@code true} if allowed, {@code false} otherwise
+     */
+    public boolean isAllowed(String pathAndQuery) {
+        if (StringUtils.isBlank(pathAndQuery)) {
+            pathAndQuery = "/";
+        }
+
+        if (pathAndQuery.equals(ROBOTS_PATH)) {
+            return true;
+        }
+
+        for (Rule rule : rules) {
+            if (rule.matches(pathAndQuery)) {
+                return rule.allow;
+            }
+        }
+        return true;
+    }
+
+    private static RobotsRules compile(List<Rule> rules) {
+        if (rules.isEmpty()) {
+            return ALLOW_ALL;
+        }
+
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.length).reversed()
+            .thenComparing(rule -> !rule.allow));
+        return new RobotsRules(rules.toArray(new Rule[0]));
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class Rule {
+        private final boolean allow;
+        private final int length;
+        private final String[] pieces;
+        private final boolean anchored;
+
+        static Rule compile(String pattern, boolean allow) {
+            boolean anchored = pattern.endsWith("$");
+            String body = anchored ? pattern.substring(0, pattern.length() - 1) : pattern;
+
+            while (body.contains("**")) {
+                body = body.replace("**", "*");
+            }
+
+            List<String> pieces = new ArrayList<>();
+            int start = 0;
+            int wildcardIndex;
+            while ((wildcardIndex = body.indexOf('*', start)) != -1) {
+                pieces.add(body.substring(start, wildcardIndex));
+                start = wildcardIndex + 1;
+            }
+            pieces.add(body.substring(start));
+
+            return new Rule(allow, pattern.length(), pieces.toArray(new String[0]), anchored);
+        }
+
+        boolean matches(String path) {
+            String first = pieces[0];
+            if (!path.startsWith(first)) {
+                return false;
+            }
+
+            int last = pieces.length - 1;
+            if (last == 0) {
+                return !anchored || path.length() == first.length();
+            }
+
+            int position = first.length();
+            int limit = path.length();
+            if (anchored) {
+                String tail = pieces[last];
+                if (limit - position < tail.length() || !path.endsWith(tail)) {
+                    return false;
+                }
+                limit -= tail.length();
+            }
+
+            for (int i = 1; i < last; i++) {
+                String piece = pieces[i];
+                int found = path.indexOf(piece, position);
+                if (found == -1 || found + piece.length() > limit) {
+                    return false;
+                }
+                position = found + piece.length();
+            }
+
+            return anchored || path.indexOf(pieces[last], position) != -1;
+        }
+    }
+}
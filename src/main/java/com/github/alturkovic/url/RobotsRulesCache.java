@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static com.github.alturkovic.url.DefaultPortMapper.getDefaultPort;
+
+/**
+ * Bounded least-recently-used cache of compiled {@link RobotsRules} keyed by url origin.
+ * <p>
+ * The robots.txt content is loaded using the provided loader which receives the robots.txt url,
+ * e.g. 'https://example.com/robots.txt', and returns its content or {@code null} if there is none. The port is only
+ * included if it is not the default port of the protocol.
+ * <p>
+ * Each origin is loaded at most once at a time, concurrent lookups of an origin that is being loaded wait for it.
+ */
+public class RobotsRulesCache {
+    private final String userAgent;
+    private final Function<String, String> loader;
+    private final Map<String, CompletableFuture<RobotsRules>> rules;
+
+    /**
+     * Create a new cache.
+     *
+     * @param userAgent   product token of the crawler the rules are compiled for
+     * @param maximumSize maximum number of cached origins
+     * @param loader      to load robots.txt content from its url
+     */
+    public RobotsRulesCache(String userAgent, int maximumSize, Function<String, String> loader) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+
+        this.userAgent = userAgent;
+        this.loader = loader;
+        this.rules = Collections.synchronizedMap(new LinkedHashMap<String, CompletableFuture<RobotsRules>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<RobotsRules>> eldest) {
+                return size() > maximumSize;
+            }
+        });
+    }
+
+    /**
+     * Get the rules for the origin of {@code url}, loading and compiling them if they are not cached.
+     *
+     * @param url to get the rules for
+     * @return compiled rules
+     */
+    public RobotsRules get(UrlParser url) {
+        String robotsUrl = robotsUrl(url);
+
+        CompletableFuture<RobotsRules> loading = null;
+        CompletableFuture<RobotsRules> cached;
+        synchronized (rules) {
+            cached = rules.get(robotsUrl);
+            if (cached == null) {
+                loading = new CompletableFuture<>();
+                rules.put(robotsUrl, loading);
+                cached = loading;
+            }
+        }
+
+        if (loading != null) {
+            load(robotsUrl, loading);
+        }
+
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Check if the {@code url} can be crawled according to the rules of its origin.
+     *
+     * @param url to check
+     * @return {@code true} if allowed, {@code false} otherwise
+     */
+    public boolean isAllowed(UrlParser url) {
+        return get(url).isAllowed(url);
+    }
+
+    /**
+     * Remove all cached rules.
+     */
+    public void clear() {
+        rules.clear();
+    }
+
+    private void load(String robotsUrl, CompletableFuture<RobotsRules> loading) {
+        try {
+            loading.complete(RobotsRules.parse(loader.apply(robotsUrl), userAgent));
+        } catch (RuntimeException e) {
+            // failed loads are not cached, the next lookup tries again
+            rules.remove(robotsUrl, loading);
+            loading.completeExceptionally(e);
+        }
+    }
+
+    private static String robotsUrl(UrlParser url) {
+        String protocol = url.getProtocol();
+        String origin = protocol + "://" + url.getHost().toLowerCase();
+        if (url.getPort() != getDefaultPort(protocol)) {
+            origin += ":" + url.getPort();
+        }
+        return origin + "/robots.txt";
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Result of routing a path using {@link PathRouter}.
+ * <p>
+ * Variables are exposed as offsets into the routed path. Instances are mutable and meant to be reused.
+ *
+ * @param <T> type of the routed value
+ */
+@Getter
+public class RouteMatch<T> {
+    private CharSequence path;
+    private T value;
+
+    @Getter(AccessLevel.NONE)
+    private String[] variableNames;
+
+    @Getter(AccessLevel.NONE)
+    private int[] offsets;
+
+    RouteMatch(int capacity) {
+        this.offsets = new int[capacity * 2];
+    }
+
+    /**
+     * Check if the last routed path was matched.
+     *
+     * @return {@code true} if matched, {@code false} otherwise
+     */
+    public boolean isMatched() {
+        return value != null;
+    }
+
+    /**
+     * Get the number of captured variables.
+     *
+     * @return captured variable count
+     */
+    public int getVariableCount() {
+        return variableNames == null ? 0 : variableNames.length;
+    }
+
+    /**
+     * Get the name of the indexed variable.
+     *
+     * @param index of the variable
+     * @return variable name
+     */
+    public String getVariableName(int index) {
+        checkIndex(index);
+        return variableNames[index];
+    }
+
+    /**
+     * Get the start offset of the indexed variable in the routed path, inclusive.
+     *
+     * @param index of the variable
+     * @return start offset
+     */
+    public int getVariableStart(int index) {
+        checkIndex(index);
+        return offsets[index * 2];
+    }
+
+    /**
+     * Get the end offset of the indexed variable in the routed path, exclusive.
+     *
+     * @param index of the variable
+     * @return end offset
+     */
+    public int getVariableEnd(int index) {
+        checkIndex(index);
+        return offsets[index * 2 + 1];
+    }
+
+    /**
+     * Get the index of the variable named {@code name}.
+     *
+     * @param name of the variable
+     * @return variable index or -1 if not captured
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < getVariableCount(); i++) {
+            if (variableNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the indexed variable as a view over the routed path.
+     *
+     * @param index of the variable
+     * @return variable value
+     */
+    public CharSequence getVariable(int index) {
+        return path.subSequence(getVariableStart(index), getVariableEnd(index));
+    }
+
+    /**
+     * Get the variable named {@code name} as a view over the routed path.
+     *
+     * @param name of the variable
+     * @return variable value or {@code null} if not captured
+     */
+    public CharSequence getVariable(String name) {
+        int index = indexOf(name);
+        return index == -1 ? null : getVariable(index);
+    }
+
+    void reset(CharSequence path, int capacity) {
+        this.path = path;
+        this.value = null;
+        this.variableNames = null;
+        if (offsets.length < capacity * 2) {
+            offsets = new int[capacity * 2];
+        }
+    }
+
+    void capture(int index, int start, int end) {
+        offsets[index * 2] = start;
+        offsets[index * 2 + 1] = end;
+    }
+
+    boolean complete(T value, String[] variableNames) {
+        this.value = value;
+        this.variableNames = variableNames;
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= getVariableCount()) {
+            throw new IndexOutOfBoundsException("Variable index: " + index + ", count: " + getVariableCount());
+        }
+    }
+}
@@ -69,4 +69,33 @@ final class StringUtils {
     static boolean isBlank(String text) {
         return text == null || text.trim().equals("");
     }
+
+    // 'www' in any case, the label added and removed by HostBuilder#withWww() and HostBuilder#withoutWww()
+    static boolean isWww(CharSequence host, int start, int end) {
+        if (end - start != 3) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            char c = host.charAt(i);
+            if (c != 'w' && c != 'W') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 'www.' followed by at least two more labels, the same rule HostBuilder#withoutWww() applies to its labels
+    static boolean startsWithWww(CharSequence host, int start, int end) {
+        if (end - start < 4 || host.charAt(start + 3) != '.' || !isWww(host, start, start + 3)) {
+            return false;
+        }
+
+        for (int i = start + 4; i < end; i++) {
+            if (host.charAt(i) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,317 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Find occurrences of many patterns in a text in a single pass.
+ * <p>
+ * Patterns are compiled into an Aho-Corasick automaton stored in primitive arrays. Each pattern is identified
+ * by its index in the list it was compiled from.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SubstringMatcher {
+    private static final int ASCII = 128;
+
+    private final boolean ignoreCase;
+    private final int patternCount;
+
+    private final int[] rootTransitions;
+    private final int[] transitionOffsets;
+    private final char[] transitionLabels;
+    private final int[] transitionTargets;
+
+    private final int[] failure;
+    private final int[] outputLink;
+    private final int[] outputOffsets;
+    private final int[] outputs;
+
+    /**
+     * Compile {@code patterns} into a matcher.
+     *
+     * @param patterns   to search for
+     * @param ignoreCase {@code true} to match regardless of character case
+     * @return compiled matcher
+     * @throws IllegalArgumentException if any pattern is blank
+     */
+    public static SubstringMatcher compile(List<String> patterns, boolean ignoreCase) {
+        int patternCount = patterns.size();
+        String[] folded = new String[patternCount];
+        int totalLength = 0;
+        int maxLength = 0;
+        for (int i = 0; i < patternCount; i++) {
+            String pattern = patterns.get(i);
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern cannot be undefined, index: " + i);
+            }
+
+            folded[i] = ignoreCase ? fold(pattern) : pattern;
+            totalLength += pattern.length();
+            maxLength = Math.max(maxLength, pattern.length());
+        }
+
+        Integer[] order = new Integer[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> folded[i]));
+
+        // sorted insertion creates each state's transitions in ascending label order
+        int[] edgeParents = new int[totalLength];
+        char[] edgeLabels = new char[totalLength];
+        int[] terminals = new int[patternCount];
+        int[] pathStates = new int[maxLength + 1];
+        int states = 1;
+        String previous = "";
+        for (int id : order) {
+            String pattern = folded[id];
+            int depth = commonPrefixLength(previous, pattern);
+            for (; depth < pattern.length(); depth++) {
+                edgeParents[states - 1] = pathStates[depth];
+                edgeLabels[states - 1] = pattern.charAt(depth);
+                pathStates[depth + 1] = states++;
+            }
+            terminals[id] = pathStates[pattern.length()];
+            previous = pattern;
+        }
+
+        int edges = states - 1;
+        int[] transitionOffsets = new int[states + 1];
+        for (int edge = 0; edge < edges; edge++) {
+            transitionOffsets[edgeParents[edge] + 1]++;
+        }
+        for (int state = 0; state < states; state++) {
+            transitionOffsets[state + 1] += transitionOffsets[state];
+        }
+
+        char[] transitionLabels = new char[edges];
+        int[] transitionTargets = new int[edges];
+        int[] cursor = Arrays.copyOf(transitionOffsets, states);
+        for (int edge = 0; edge < edges; edge++) {
+            int slot = cursor[edgeParents[edge]]++;
+            transitionLabels[slot] = edgeLabels[edge];
+            transitionTargets[slot] = edge + 1;
+        }
+
+        int[] outputOffsets = new int[states + 1];
+        for (int terminal : terminals) {
+            outputOffsets[terminal + 1]++;
+        }
+        for (int state = 0; state < states; state++) {
+            outputOffsets[state + 1] += outputOffsets[state];
+        }
+        int[] outputs = new int[patternCount];
+        cursor = Arrays.copyOf(outputOffsets, states);
+        for (int id = 0; id < patternCount; id++) {
+            outputs[cursor[terminals[id]]++] = id;
+        }
+
+        int[] rootTransitions = new int[ASCII];
+        for (int slot = transitionOffsets[0]; slot < transitionOffsets[1]; slot++) {
+            if (transitionLabels[slot] < ASCII) {
+                rootTransitions[transitionLabels[slot]] = transitionTargets[slot];
+            }
+        }
+
+        SubstringMatcher matcher = new SubstringMatcher(ignoreCase, patternCount, rootTransitions,
+            transitionOffsets, transitionLabels, transitionTargets,
+            new int[states], new int[states], outputOffsets, outputs);
+        matcher.linkFailures(states);
+        return matcher;
+    }
+
+    /**
+     * Get the number of compiled patterns.
+     *
+     * @return pattern count
+     */
+    public int size() {
+        return patternCount;
+    }
+
+    /**
+     * Report the id of each pattern occurrence in {@code text}.
+     * <p>
+     * Patterns ending at the same position are reported from the longest to the shortest.
+     *
+     * @param text     to scan
+     * @param consumer to receive matched pattern ids
+     */
+    public void scan(CharSequence text, IntConsumer consumer) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, read(text, i));
+
+            int output = hasOutputs(state) ? state : outputLink[state];
+            while (output != 0) {
+                for (int slot = outputOffsets[output]; slot < outputOffsets[output + 1]; slot++) {
+                    consumer.accept(outputs[slot]);
+                }
+                output = outputLink[output];
+            }
+        }
+    }
+
+    /**
+     * Check if {@code text} contains any of the patterns.
+     *
+     * @param text to scan
+     * @return {@code true} if any pattern is found, {@code false} otherwise
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, read(text, i));
+            if (hasOutputs(state) || outputLink[state] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if the {@code component} of {@code url} contains any of the patterns.
+     *
+     * @param url       to scan
+     * @param component of the url to scan
+     * @return {@code true} if any pattern is found, {@code false} otherwise
+     */
+    public boolean containsAny(UrlParser url, UrlComponent component) {
+        return component.from(url).map(this::containsAny).orElse(false);
+    }
+
+    /**
+     * Find the distinct ids of patterns found in {@code text}.
+     *
+     * @param text to scan
+     * @return ascending pattern ids
+     */
+    public int[] findAll(CharSequence text) {
+        BitSet found = new BitSet(patternCount);
+        scan(text, found::set);
+        return found.stream().toArray();
+    }
+
+    /**
+     * Find the distinct ids of patterns found in the {@code component} of {@code url}.
+     *
+     * @param url       to scan
+     * @param component of the url to scan
+     * @return ascending pattern ids
+     */
+    public int[] findAll(UrlParser url, UrlComponent component) {
+        return component.from(url).map(this::findAll).orElse(new int[0]);
+    }
+
+    private void linkFailures(int states) {
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int slot = transitionOffsets[0]; slot < transitionOffsets[1]; slot++) {
+            queue[tail++] = transitionTargets[slot];
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            for (int slot = transitionOffsets[state]; slot < transitionOffsets[state + 1]; slot++) {
+                int child = transitionTargets[slot];
+                int fallback = next(failure[state], transitionLabels[slot]);
+                failure[child] = fallback;
+                outputLink[child] = hasOutputs(fallback) ? fallback : outputLink[fallback];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        while (state != 0) {
+            int target = transition(state, c);
+            if (target != -1) {
+                return target;
+            }
+            state = failure[state];
+        }
+
+        if (c < ASCII) {
+            return rootTransitions[c];
+        }
+
+        int target = transition(0, c);
+        return target == -1 ? 0 : target;
+    }
+
+    private int transition(int state, char c) {
+        int low = transitionOffsets[state];
+        int high = transitionOffsets[state + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = transitionLabels[middle];
+            if (label < c) {
+                low = middle + 1;
+            } else if (label > c) {
+                high = middle - 1;
+            } else {
+                return transitionTargets[middle];
+            }
+        }
+        return -1;
+    }
+
+    private boolean hasOutputs(int state) {
+        return outputOffsets[state] != outputOffsets[state + 1];
+    }
+
+    private char read(CharSequence text, int index) {
+        char c = text.charAt(index);
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private static String fold(String pattern) {
+        char[] chars = pattern.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int limit = Math.min(first.length(), second.length());
+        int i = 0;
+        while (i < limit && first.charAt(i) == second.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded concurrent cache using the W-TinyLFU admission and eviction policy.
+ * <p>
+ * New entries enter a small LRU window. Entries leaving the window compete with the least recently used entry of
+ * the main segmented LRU and only the one seen more frequently, according to a {@link FrequencySketch}, is kept.
+ * <p>
+ * Lookups never block: access order is updated only if the policy lock is free, so some reorderings are dropped
+ * under contention. Values are computed outside of the lock, concurrent loads of the same key may compute it twice
+ * but all callers receive the same cached value.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+final class TinyLfuCache<K, V> {
+    private final int maximumSize;
+    private final int maximumWindowSize;
+    private final int maximumProtectedSize;
+
+    private final Map<K, Entry<K, V>> data;
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Queue<K, V> window = new Queue<>();
+    private final Queue<K, V> probation = new Queue<>();
+    private final Queue<K, V> protectedQueue = new Queue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    TinyLfuCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+
+        this.maximumSize = maximumSize;
+        this.maximumWindowSize = Math.max(1, maximumSize / 100);
+        this.maximumProtectedSize = (maximumSize - maximumWindowSize) * 4 / 5;
+        this.data = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    V get(K key, Function<? super K, ? extends V> loader) {
+        Entry<K, V> entry = data.get(key);
+        if (entry != null) {
+            hits.increment();
+            onAccess(entry);
+            return entry.value;
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        if (value == null) {
+            return null;
+        }
+
+        lock.lock();
+        try {
+            sketch.increment(key);
+            entry = data.get(key);
+            if (entry != null) {
+                return entry.value;
+            }
+
+            entry = new Entry<>(key, value);
+            data.put(key, entry);
+            window.addLast(entry, Queue.WINDOW);
+            evict();
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return data.size();
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    double hitRate() {
+        long hitCount = hitCount();
+        long requests = hitCount + missCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAccess(Entry<K, V> entry) {
+        if (!lock.tryLock()) {
+            return;
+        }
+
+        try {
+            sketch.increment(entry.key);
+            switch (entry.queue) {
+                case Queue.WINDOW:
+                    window.moveToLast(entry);
+                    break;
+                case Queue.PROBATION:
+                    probation.remove(entry);
+                    protectedQueue.addLast(entry, Queue.PROTECTED);
+                    if (protectedQueue.size > maximumProtectedSize) {
+                        Entry<K, V> demoted = protectedQueue.removeFirst();
+                        probation.addLast(demoted, Queue.PROBATION);
+                    }
+                    break;
+                case Queue.PROTECTED:
+                    protectedQueue.moveToLast(entry);
+                    break;
+                default:
+                    // evicted concurrently
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict() {
+        while (window.size > maximumWindowSize) {
+            Entry<K, V> candidate = window.removeFirst();
+            if (data.size() <= maximumSize) {
+                probation.addLast(candidate, Queue.PROBATION);
+                continue;
+            }
+
+            Entry<K, V> victim = probation.size > 0 ? probation.first() : protectedQueue.first();
+            if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                remove(victim);
+                probation.addLast(candidate, Queue.PROBATION);
+            } else {
+                candidate.queue = Queue.NONE;
+                data.remove(candidate.key, candidate);
+            }
+        }
+    }
+
+    private void remove(Entry<K, V> entry) {
+        if (entry.queue == Queue.PROBATION) {
+            probation.remove(entry);
+        } else {
+            protectedQueue.remove(entry);
+        }
+        data.remove(entry.key, entry);
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private Entry<K, V> previous;
+        private Entry<K, V> next;
+        private int queue = Queue.NONE;
+
+        private Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class Queue<K, V> {
+        static final int NONE = 0;
+        static final int WINDOW = 1;
+        static final int PROBATION = 2;
+        static final int PROTECTED = 3;
+
+        private Entry<K, V> head;
+        private Entry<K, V> tail;
+        private int size;
+
+        Entry<K, V> first() {
+            return head;
+        }
+
+        void addLast(Entry<K, V> entry, int queue) {
+            entry.queue = queue;
+            entry.previous = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+            size++;
+        }
+
+        Entry<K, V> removeFirst() {
+            Entry<K, V> first = head;
+            remove(first);
+            return first;
+        }
+
+        void moveToLast(Entry<K, V> entry) {
+            if (entry != tail) {
+                int queue = entry.queue;
+                remove(entry);
+                addLast(entry, queue);
+            }
+        }
+
+        void remove(Entry<K, V> entry) {
+            if (entry.previous == null) {
+                head = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.previous;
+            } else {
+                entry.next.previous = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+            entry.queue = NONE;
+            size--;
+        }
+
+        void clear() {
+            Entry<K, V> entry = head;
+            while (entry != null) {
+                Entry<K, V> next = entry.next;
+                entry.previous = null;
+                entry.next = null;
+                entry.queue = NONE;
+                entry = next;
+            }
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static com.github.alturkovic.url.DefaultPortMapper.getDefaultPort;
+
+/**
+ * Compact immutable url.
+ * <p>
+ * The normalized url is stored once as a {@link String} together with the offsets of its components,
+ * component values are extracted only when requested. This makes it suitable for long-lived storage
+ * such as caches and queues, use {@link #asBuilder()} to modify it.
+ */
+public final class Url {
+    private final String value;
+    private final int protocolEnd;
+    private final int hostStart;
+    private final int hostEnd;
+    private final int pathStart;
+    private final int queryStart;
+    private final int fragmentStart;
+    private final int port;
+
+    private Url(String value) {
+        this.value = value;
+        this.protocolEnd = value.indexOf(':');
+
+        int authorityStart = protocolEnd + 3;
+        int fragmentIndex = value.indexOf('#', authorityStart);
+        int end = fragmentIndex == -1 ? value.length() : fragmentIndex;
+        int queryIndex = value.indexOf('?', authorityStart);
+        if (queryIndex > end) {
+            queryIndex = -1;
+        }
+
+        int authorityEnd = authorityStart;
+        while (authorityEnd < end && value.charAt(authorityEnd) != '/' && authorityEnd != queryIndex) {
+            authorityEnd++;
+        }
+
+        int userInfoEnd = value.lastIndexOf('@', authorityEnd - 1);
+        this.hostStart = userInfoEnd < authorityStart ? authorityStart : userInfoEnd + 1;
+
+        int portIndex = value.lastIndexOf(':', authorityEnd - 1);
+        if (portIndex > hostStart && portIndex > value.lastIndexOf(']', authorityEnd - 1)) {
+            this.hostEnd = portIndex;
+            this.port = Integer.parseInt(value.substring(portIndex + 1, authorityEnd));
+        } else {
+            this.hostEnd = authorityEnd;
+            this.port = -1;
+        }
+
+        this.pathStart = authorityEnd;
+        this.queryStart = queryIndex;
+        this.fragmentStart = fragmentIndex;
+    }
+
+    /**
+     * Parse a new url from {@code url}.
+     * <p>
+     * If the protocol is missing from it, 'https' will be used by default.
+     *
+     * @param url to parse
+     * @return url instance
+     */
+    public static Url of(String url) {
+        return of(UrlBuilder.of(url));
+    }
+
+    /**
+     * Create a new url from {@code url}.
+     * <p>
+     * If the protocol is missing from it, 'https' will be used by default.
+     *
+     * @param url to create from
+     * @return url instance
+     */
+    public static Url of(URI url) {
+        return of(UrlBuilder.of(url));
+    }
+
+    /**
+     * Create a new url from the current state of {@code builder}.
+     *
+     * @param builder to create from
+     * @return url instance
+     */
+    public static Url of(UrlBuilder builder) {
+        return new Url(builder.build().toString());
+    }
+
+    /**
+     * Get the protocol.
+     *
+     * @return the protocol
+     */
+    public String getProtocol() {
+        return value.substring(0, protocolEnd);
+    }
+
+    /**
+     * Get the user info.
+     *
+     * @return the user info
+     */
+    public Optional<String> getUserInfo() {
+        int userInfoStart = protocolEnd + 3;
+        if (hostStart == userInfoStart) {
+            return Optional.empty();
+        }
+        return Optional.of(value.substring(userInfoStart, hostStart - 1));
+    }
+
+    /**
+     * Get the host.
+     *
+     * @return the host
+     */
+    public String getHost() {
+        return value.substring(hostStart, hostEnd);
+    }
+
+    /**
+     * Get the port.
+     * <p>
+     * If it was not provided, the default port for the protocol will be returned.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return port == -1 ? getDefaultPort(getProtocol()) : port;
+    }
+
+    /**
+     * Get the path.
+     *
+     * @return the path
+     */
+    public Optional<String> getPath() {
+        return component(pathStart, queryStart != -1 ? queryStart : fragmentStart);
+    }
+
+    /**
+     * Get the query.
+     *
+     * @return the query
+     */
+    public Optional<String> getQuery() {
+        return queryStart == -1 ? Optional.empty() : component(queryStart + 1, fragmentStart);
+    }
+
+    /**
+     * Get the first value of the {@code name} query parameter.
+     * <p>
+     * The query is scanned without being split into parameters.
+     *
+     * @param name of the parameter
+     * @return first {@code name} parameter value
+     */
+    public Optional<String> getQueryParameter(String name) {
+        if (queryStart == -1) {
+            return Optional.empty();
+        }
+
+        int end = fragmentStart == -1 ? value.length() : fragmentStart;
+        int start = queryStart + 1;
+        while (start < end) {
+            int pairEnd = value.indexOf('&', start);
+            if (pairEnd == -1 || pairEnd > end) {
+                pairEnd = end;
+            }
+
+            int nameEnd = start + name.length();
+            if (nameEnd <= pairEnd && value.startsWith(name, start)) {
+                if (nameEnd == pairEnd) {
+                    return Optional.of("");
+                }
+                if (value.charAt(nameEnd) == '=') {
+                    return Optional.of(value.substring(nameEnd + 1, pairEnd));
+                }
+            }
+            start = pairEnd + 1;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get the fragment.
+     *
+     * @return the fragment
+     */
+    public Optional<String> getFragment() {
+        return fragmentStart == -1 ? Optional.empty() : component(fragmentStart + 1, -1);
+    }
+
+    /**
+     * Convert this url to {@link URI}.
+     *
+     * @return this as {@link URI}
+     */
+    public URI toUri() {
+        return URI.create(value);
+    }
+
+    /**
+     * Convert this url to {@link UrlBuilder}.
+     * <p>
+     * Changes to the builder won't affect this url.
+     *
+     * @return this as {@link UrlBuilder}
+     */
+    public UrlBuilder asBuilder() {
+        return UrlBuilder.of(value);
+    }
+
+    /**
+     * Convert this url to {@link UrlParser}.
+     *
+     * @return this as {@link UrlParser}
+     */
+    public UrlParser asParser() {
+        return UrlParser.of(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return value.equals(((Url) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private Optional<String> component(int start, int end) {
+        if (end == -1) {
+            end = value.length();
+        }
+        return start < end ? Optional.of(value.substring(start, end)) : Optional.empty();
+    }
+}
@@ -36,12 +36,20 @@ import static com.github.alturkovic.url.UrlParseUtils.*;
 
 /**
  * Used to build urls as {@link URI}s.
+ * <p>
+ * The built {@link URI} is cached until the next modification and components that were not modified since the last
+ * build are not formatted or encoded again. The url is assembled from the encoded component text, only characters
+ * which are not allowed in urls are percent-encoded and existing percent-encoded octets are kept as they are.
  */
 @Getter(AccessLevel.PACKAGE)
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class UrlBuilder {
     public static final String DEFAULT_PROTOCOL = "https";
 
+    private static final boolean[] AUTHORITY_CHARACTERS = allowedCharacters(";:@&=+$,[]");
+    private static final boolean[] PATH_CHARACTERS = allowedCharacters(";/:@&=+$,");
+    private static final boolean[] QUERY_CHARACTERS = allowedCharacters(";/?:@&=+$,[]");
+
     private String protocol;
     private UserInfo userInfo;
     private HostBuilder host;
@@ -52,6 +60,25 @@ public class UrlBuilder {
 
     private boolean appendTrailingSlash;
 
+    @Getter(AccessLevel.NONE)
+    private URI built;
+
+    @Getter(AccessLevel.NONE)
+    private String builtHost;
+
+    @Getter(AccessLevel.NONE)
+    private String builtPath;
+
+    @Getter(AccessLevel.NONE)
+    private String builtQuery;
+
+    // builtPath and builtQuery with characters not allowed in urls percent-encoded
+    @Getter(AccessLevel.NONE)
+    private String encodedPath;
+
+    @Getter(AccessLevel.NONE)
+    private String encodedQuery;
+
     /**
      * Initialize a new builder from {@code uri}.
      * <p>
@@ -61,17 +88,12 @@ public class UrlBuilder {
      * @return builder instance
      */
     public static UrlBuilder of(URI uri) {
-        UrlBuilder builder = new UrlBuilder()
-            .protocol(uri.getScheme() == null ? DEFAULT_PROTOCOL : uri.getScheme())
-            .port(uri.getPort())
-            .fragment(StringUtils.removeSuffix(uri.getRawFragment(), "/"));
-
-        builder = populateAuthority(uri, builder);
-
-        builder.path = PathBuilder.of(uri.getRawPath());
-        builder.query = ParameterBuilder.of(uri.getRawQuery(), "&");
-
-        return determineIfTrailingSlashIsPresent(uri, builder);
+        UrlBuilder builder = new UrlBuilder();
+        builder.userInfo = new UserInfo();
+        builder.host = new HostBuilder();
+        builder.path = new PathBuilder();
+        builder.query = new ParameterBuilder();
+        return builder.initialize(uri);
     }
 
     /**
@@ -88,6 +110,53 @@ public class UrlBuilder {
         return of(uri);
     }
 
+    /**
+     * Initialize a new builder from {@code urlString}, sharing repeated component values through {@code interner}.
+     * <p>
+     * If {@code urlString} does not have a defined protocol, 'https' will be used as default.
+     *
+     * @param urlString to initialize from
+     * @param interner  to share host, path segment and parameter name values
+     * @return builder instance
+     */
+    public static UrlBuilder of(String urlString, UrlInterner interner) {
+        UrlBuilder builder = of(urlString);
+        builder.host.intern(interner);
+        builder.path.intern(interner);
+        builder.query.intern(interner);
+        return builder;
+    }
+
+    /**
+     * Initialize a new builder from {@code urlString}, applying the parse {@code options} in order.
+     * <p>
+     * If {@code urlString} does not have a defined protocol, 'https' will be used as default.
+     *
+     * @param urlString to initialize from
+     * @param options   to apply
+     * @return builder instance
+     */
+    public static UrlBuilder of(String urlString, ParseOption... options) {
+        UrlBuilder builder = of(urlString);
+        for (ParseOption option : options) {
+            option.apply(builder);
+        }
+        return builder;
+    }
+
+    /**
+     * Reinitialize this builder from {@code url}, reusing the existing component builders.
+     * <p>
+     * If {@code url} does not have a defined protocol, 'https' will be used as default.
+     *
+     * @param url to initialize from
+     * @return this builder
+     */
+    public UrlBuilder reset(CharSequence url) {
+        String urlString = ProtocolEnforcer.addProtocolIfMissing(url.toString(), DEFAULT_PROTOCOL);
+        return initialize(parse(urlString));
+    }
+
     /**
      * Set the protocol value.
      *
@@ -96,17 +165,8 @@ public class UrlBuilder {
      * @throws IllegalArgumentException if {@code protocol} is blank, {@code null} or not {@code http(s)}
      */
     public UrlBuilder protocol(String protocol) {
-        if (StringUtils.isBlank(protocol)) {
-            throw new IllegalArgumentException("Protocol cannot be undefined");
-        }
-
-        String normalizedProtocol = protocol.toLowerCase();
-
-        if (!normalizedProtocol.equals("http") && !normalizedProtocol.equals("https")) {
-            throw new IllegalArgumentException("Only http(s) protocols supported. Provided: " + protocol);
-        }
-
-        this.protocol = normalizedProtocol;
+        this.protocol = normalizeProtocol(protocol);
+        modified();
         return this;
     }
 
@@ -118,6 +178,7 @@ public class UrlBuilder {
      */
     public UrlBuilder userInfo(String userInfo) {
         this.userInfo = UserInfo.of(userInfo);
+        modified();
         return this;
     }
 
@@ -130,6 +191,7 @@ public class UrlBuilder {
      */
     public UrlBuilder userInfo(String user, String password) {
         this.userInfo = new UserInfo(user, password);
+        modified();
         return this;
     }
 
@@ -141,6 +203,7 @@ public class UrlBuilder {
      */
     public UrlBuilder user(String user) {
         this.userInfo.setUser(user);
+        modified();
         return this;
     }
 
@@ -152,6 +215,7 @@ public class UrlBuilder {
      */
     public UrlBuilder password(String password) {
         this.userInfo.setPassword(password);
+        modified();
         return this;
     }
 
@@ -163,6 +227,7 @@ public class UrlBuilder {
      */
     public UrlBuilder port(int port) {
         this.port = port;
+        modified();
         return this;
     }
 
@@ -207,6 +272,7 @@ public class UrlBuilder {
      */
     public UrlBuilder fragment(String fragment) {
         this.fragment = fragment;
+        modified();
         return this;
     }
 
@@ -265,6 +331,28 @@ public class UrlBuilder {
         return this;
     }
 
+    /**
+     * Remove '.' and '..' path segments.
+     *
+     * @return this builder
+     * @see PathBuilder#removeDotSegments()
+     */
+    public UrlBuilder removeDotSegments() {
+        return removeDotSegments(false);
+    }
+
+    /**
+     * Remove '.' and '..' path segments, optionally collapsing empty path segments.
+     *
+     * @param collapseEmptySegments to also remove empty segments
+     * @return this builder
+     * @see PathBuilder#removeDotSegments(boolean)
+     */
+    public UrlBuilder removeDotSegments(boolean collapseEmptySegments) {
+        path.removeDotSegments(collapseEmptySegments);
+        return this;
+    }
+
     /**
      * Remove the query value.
      *
@@ -291,6 +379,7 @@ public class UrlBuilder {
      */
     public UrlBuilder withTrailingSlash() {
         this.appendTrailingSlash = true;
+        modified();
         return this;
     }
 
@@ -301,6 +390,7 @@ public class UrlBuilder {
      */
     public UrlBuilder withoutTrailingSlash() {
         this.appendTrailingSlash = false;
+        modified();
         return this;
     }
 
@@ -318,16 +408,90 @@ public class UrlBuilder {
         return this;
     }
 
+    /**
+     * Create an independent copy of this builder.
+     * <p>
+     * Unlike {@link UrlParser#asBuilder()}, the components are copied directly without building and parsing the url.
+     *
+     * @return builder copy
+     */
+    public UrlBuilder copy() {
+        UrlBuilder copy = new UrlBuilder();
+        copy.protocol = protocol;
+        copy.userInfo = userInfo.copy();
+        copy.host = host.copy();
+        copy.port = port;
+        copy.path = path.copy();
+        copy.query = query.copy();
+        copy.fragment = fragment;
+        copy.appendTrailingSlash = appendTrailingSlash;
+        copy.built = built;
+        copy.builtHost = builtHost;
+        copy.builtPath = builtPath;
+        copy.builtQuery = builtQuery;
+        copy.encodedPath = encodedPath;
+        copy.encodedQuery = encodedQuery;
+        return copy;
+    }
+
     /**
      * Create the {@link URI} from the registered values.
+     * <p>
+     * The same instance is returned until this builder or one of its components is modified. After a modification,
+     * the cached encoded text of unmodified components is reused and only the modified ones are encoded again.
      *
      * @return {@link URI} instance
      */
     public URI build() {
+        String currentHost = host.build();
+        String currentPath = path.build();
+        String currentQuery = query.build("&");
+
+        // components return the same instance until modified, so identity is enough to detect changes
+        if (built != null && currentHost == builtHost && currentPath == builtPath && currentQuery == builtQuery) {
+            return built;
+        }
+
+        // only components which changed since the last build are encoded again
+        if (encodedPath == null || currentPath != builtPath) {
+            encodedPath = percentEncodeIllegal(currentPath, PATH_CHARACTERS);
+        }
+        if (encodedQuery == null || currentQuery != builtQuery) {
+            encodedQuery = percentEncodeIllegal(currentQuery, QUERY_CHARACTERS);
+        }
+
+        built = format(currentHost, encodedPath, encodedQuery);
+        builtHost = currentHost;
+        builtPath = currentPath;
+        builtQuery = currentQuery;
+        return built;
+    }
+
+    /**
+     * Build every lazily cached component, so that reading this builder afterwards does not modify it.
+     */
+    void prepare() {
+        build();
+        query.prepare();
+    }
+
+    /**
+     * Convert this builder to {@link UrlParser}.
+     * <p>
+     * Changes to each won't affect the other.
+     *
+     * @return this as {@link UrlParser}
+     */
+    public UrlParser asParser() {
+        return UrlParser.of(build());
+    }
+
+    private URI format(String builtHost, String builtPath, String builtQuery) {
+        if (builtPath != null && !builtPath.isEmpty() && builtPath.charAt(0) != '/') {
+            throw new IllegalArgumentException("Path must start with '/': " + builtPath);
+        }
+
         try {
-            String builtHost = host.build();
-            String builtPath = path.build();
-            String builtQuery = query.build("&");
             String builtAuthority = new AuthorityParser(builtHost, userInfo).format();
             String definedFragment = fragment;
 
@@ -352,50 +516,78 @@ public class UrlBuilder {
                 }
             }
 
-            return new URI(protocol, builtAuthority, percentDecode(builtPath), percentDecode(builtQuery), percentDecode(definedFragment));
+            StringBuilder url = new StringBuilder(protocol).append(':');
+            if (builtAuthority != null) {
+                url.append("//").append(percentEncodeIllegal(builtAuthority, AUTHORITY_CHARACTERS));
+            }
+            if (builtPath != null) {
+                url.append(builtPath);
+            }
+            if (builtQuery != null) {
+                url.append('?').append(builtQuery);
+            }
+            if (definedFragment != null) {
+                url.append('#').append(percentEncodeIllegal(definedFragment, QUERY_CHARACTERS));
+            }
+            return new URI(url.toString());
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(e);
         }
     }
 
-    /**
-     * Convert this builder to {@link UrlParser}.
-     * <p>
-     * Changes to each won't affect the other.
-     *
-     * @return this as {@link UrlParser}
-     */
-    public UrlParser asParser() {
-        return UrlParser.of(build());
+    static String normalizeProtocol(String protocol) {
+        if (StringUtils.isBlank(protocol)) {
+            throw new IllegalArgumentException("Protocol cannot be undefined");
+        }
+
+        String normalizedProtocol = protocol.toLowerCase();
+
+        if (!normalizedProtocol.equals("http") && !normalizedProtocol.equals("https")) {
+            throw new IllegalArgumentException("Only http(s) protocols supported. Provided: " + protocol);
+        }
+
+        return normalizedProtocol;
+    }
+
+    private UrlBuilder initialize(URI uri) {
+        protocol(uri.getScheme() == null ? DEFAULT_PROTOCOL : uri.getScheme());
+        port(uri.getPort());
+        fragment(StringUtils.removeSuffix(uri.getRawFragment(), "/"));
+
+        populateAuthority(uri);
+
+        path.reset(uri.getRawPath());
+        query.reset(uri.getRawQuery(), "&");
+
+        this.appendTrailingSlash = isTrailingSlashPresent(uri);
+        modified();
+        return this;
+    }
+
+    private void modified() {
+        this.built = null;
     }
 
-    private static UrlBuilder populateAuthority(URI uri, UrlBuilder builder) {
+    private void populateAuthority(URI uri) {
         if (uri.getHost() != null) {
-            builder.host = HostBuilder.of(uri.getHost());
-            return builder.userInfo(uri.getRawUserInfo());
+            host.host(uri.getHost());
+            userInfo.reset(uri.getRawUserInfo());
         } else {
             AuthorityParser authority = new AuthorityParser(uri.getRawAuthority());
-            builder.host = HostBuilder.of(authority.getHost());
-            builder.userInfo = authority.getUserInfo();
-            return builder;
+            host.host(authority.getHost());
+            userInfo = authority.getUserInfo();
         }
     }
 
-    private static UrlBuilder determineIfTrailingSlashIsPresent(URI uri, UrlBuilder builder) {
+    private static boolean isTrailingSlashPresent(URI uri) {
         if (StringUtils.hasText(uri.getRawFragment())) {
-            if (StringUtils.endsWith(uri.getRawFragment(), "/")) {
-                builder.appendTrailingSlash = true;
-            }
+            return StringUtils.endsWith(uri.getRawFragment(), "/");
         } else if (StringUtils.hasText(uri.getRawQuery())) {
-            if (StringUtils.endsWith(uri.getRawQuery(), "/")) {
-                builder.appendTrailingSlash = true;
-            }
+            return StringUtils.endsWith(uri.getRawQuery(), "/");
         } else if (StringUtils.hasText(uri.getRawPath())) {
-            if (StringUtils.endsWith(uri.getRawPath(), "/")) {
-                builder.appendTrailingSlash = true;
-            }
+            return StringUtils.endsWith(uri.getRawPath(), "/");
         }
 
-        return builder;
+        return false;
     }
 }
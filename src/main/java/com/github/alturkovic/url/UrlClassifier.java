@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Classify urls into categories using regular expressions applied to url components.
+ * <p>
+ * All patterns registered for a component are compiled into a single lazily constructed DFA,
+ * so each component is scanned only once regardless of the number of patterns.
+ * <p>
+ * Patterns are searched for anywhere in the component unless anchored using '^' or '$'. Supported syntax:
+ * literals, '.', character classes with ranges and negation, escapes ('\d', '\w', '\s' and their negations),
+ * groups (optionally '(?:'), alternation, greedy quantifiers ('*', '+', '?', '{m}', '{m,}', '{m,n}'),
+ * anchors and a leading '(?i)' for ASCII case-insensitive matching. Backreferences and lookarounds are not supported.
+ * <p>
+ * Registration is not thread-safe, classifying using a fully registered classifier is.
+ */
+public class UrlClassifier {
+    private static final int DEFAULT_MAXIMUM_STATES = 10_000;
+
+    private final int maximumStates;
+    private final Map<UrlComponent, Patterns> patterns = new EnumMap<>(UrlComponent.class);
+
+    /**
+     * Create a new classifier caching up to 10 000 DFA states per component.
+     */
+    public UrlClassifier() {
+        this(DEFAULT_MAXIMUM_STATES);
+    }
+
+    /**
+     * Create a new classifier.
+     *
+     * @param maximumStates maximum number of cached DFA states per component
+     */
+    public UrlClassifier(int maximumStates) {
+        if (maximumStates <= 0) {
+            throw new IllegalArgumentException("Maximum states must be positive: " + maximumStates);
+        }
+
+        this.maximumStates = maximumStates;
+    }
+
+    /**
+     * Register a {@code regex} for the {@code component} tagged with {@code category}.
+     *
+     * @param component to apply the pattern to
+     * @param regex     to search for in the component
+     * @param category  to report when the pattern is found, must not be negative
+     * @return this classifier
+     * @throws IllegalArgumentException if {@code regex} is invalid or {@code category} is negative
+     */
+    public UrlClassifier register(UrlComponent component, String regex, int category) {
+        if (category < 0) {
+            throw new IllegalArgumentException("Category cannot be negative: " + category);
+        }
+
+        RegexDfa.validate(regex);
+
+        Patterns componentPatterns = patterns.computeIfAbsent(component, c -> new Patterns());
+        componentPatterns.regexes.add(regex);
+        componentPatterns.categories.add(category);
+        componentPatterns.dfa = null;
+        return this;
+    }
+
+    /**
+     * Find the categories of all patterns matching their components in {@code url}.
+     *
+     * @param url to classify
+     * @return ascending distinct category ids
+     */
+    public int[] classify(UrlParser url) {
+        BitSet result = new BitSet();
+        for (Map.Entry<UrlComponent, Patterns> entry : patterns.entrySet()) {
+            Optional<String> value = entry.getKey().from(url);
+            if (value.isPresent()) {
+                entry.getValue().dfa(maximumStates).match(value.get(), result);
+            }
+        }
+        return result.stream().toArray();
+    }
+
+    /**
+     * Find the categories of all patterns registered for {@code component} found in {@code text}.
+     *
+     * @param component the text was taken from
+     * @param text      to classify
+     * @return ascending distinct category ids
+     */
+    public int[] classify(UrlComponent component, CharSequence text) {
+        Patterns componentPatterns = patterns.get(component);
+        if (componentPatterns == null) {
+            return new int[0];
+        }
+
+        BitSet result = new BitSet();
+        componentPatterns.dfa(maximumStates).match(text, result);
+        return result.stream().toArray();
+    }
+
+    private static class Patterns {
+        private final List<String> regexes = new ArrayList<>();
+        private final List<Integer> categories = new ArrayList<>();
+        private volatile RegexDfa dfa;
+
+        RegexDfa dfa(int maximumStates) {
+            RegexDfa result = dfa;
+            if (result == null) {
+                synchronized (this) {
+                    result = dfa;
+                    if (result == null) {
+                        result = new RegexDfa(regexes, categories, maximumStates);
+                        dfa = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
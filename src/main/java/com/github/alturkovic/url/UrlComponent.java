@@ -24,22 +24,39 @@
 
 package com.github.alturkovic.url;
 
-enum WwwPrefix {
-    INCLUDE {
+import java.util.Optional;
+
+/**
+ * URL components that can be extracted from a parsed url.
+ */
+public enum UrlComponent {
+    HOST {
         @Override
-        String normalizeHost(String host) {
-            return StringUtils.addPrefix("www.", host);
+        public Optional<String> from(UrlParser url) {
+            return Optional.of(url.getHost());
         }
-    }, EXCLUDE {
+    }, PATH {
         @Override
-        String normalizeHost(String host) {
-            if (host.startsWith("www.") && host.indexOf('.', 4) != -1) {
-                return host.substring(4);
-            }
-
-            return host;
+        public Optional<String> from(UrlParser url) {
+            return url.getPath();
+        }
+    }, QUERY {
+        @Override
+        public Optional<String> from(UrlParser url) {
+            return url.getQuery();
+        }
+    }, FRAGMENT {
+        @Override
+        public Optional<String> from(UrlParser url) {
+            return url.getFragment();
         }
     };
 
-    abstract String normalizeHost(String host);
+    /**
+     * Extract this component from {@code url}.
+     *
+     * @param url to extract from
+     * @return the component value if present
+     */
+    public abstract Optional<String> from(UrlParser url);
 }
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Share equal strings of url components between parsed urls.
+ * <p>
+ * Each component keeps its own bounded W-TinyLFU dictionary, so frequently repeated values such as popular hosts,
+ * common path segments or tracking parameter names are stored once while rare values are not retained.
+ * <p>
+ * Instances are thread-safe and meant to be shared by all parsing threads.
+ *
+ * @see UrlParser#of(String, UrlInterner)
+ * @see UrlBuilder#of(String, UrlInterner)
+ */
+public class UrlInterner {
+    private final Map<Component, TinyLfuCache<String, String>> dictionaries = new EnumMap<>(Component.class);
+
+    /**
+     * Create a new interner.
+     *
+     * @param maximumSize maximum number of interned values per component
+     */
+    public UrlInterner(int maximumSize) {
+        for (Component component : Component.values()) {
+            dictionaries.put(component, new TinyLfuCache<>(maximumSize));
+        }
+    }
+
+    /**
+     * Get the shared instance equal to {@code value}.
+     *
+     * @param component the value belongs to
+     * @param value     to intern
+     * @return shared instance or {@code value} itself if it was not interned yet
+     */
+    public String intern(Component component, String value) {
+        if (value == null) {
+            return null;
+        }
+
+        return dictionaries.get(component).get(value, Function.identity());
+    }
+
+    /**
+     * Get the number of interned values of the {@code component}.
+     *
+     * @param component to get the size for
+     * @return interned value count
+     */
+    public int size(Component component) {
+        return dictionaries.get(component).size();
+    }
+
+    /**
+     * Get the number of values of the {@code component} that were replaced by a shared instance.
+     *
+     * @param component to get the count for
+     * @return hit count
+     */
+    public long hitCount(Component component) {
+        return dictionaries.get(component).hitCount();
+    }
+
+    /**
+     * Get the number of values of the {@code component} that had no shared instance.
+     *
+     * @param component to get the count for
+     * @return miss count
+     */
+    public long missCount(Component component) {
+        return dictionaries.get(component).missCount();
+    }
+
+    /**
+     * Get the ratio of values of the {@code component} that were replaced by a shared instance.
+     *
+     * @param component to get the ratio for
+     * @return hit rate
+     */
+    public double hitRate(Component component) {
+        return dictionaries.get(component).hitRate();
+    }
+
+    /**
+     * Interned url components.
+     */
+    public enum Component {
+        HOST, PATH_SEGMENT, PARAMETER_NAME
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Normalize urls using a fixed set of {@link NormalizationStep}s.
+ * <p>
+ * All steps are applied in a single pass over the url, writing directly into one output buffer without parsing the url
+ * into components or creating intermediate strings. Urls without the protocol, e.g. 'example.com/a', are normalized
+ * as well and the protocol is not added.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class UrlNormalizer {
+    private final Set<NormalizationStep> steps;
+    private final boolean lowercaseProtocol;
+    private final boolean lowercaseHost;
+    private final boolean removeWww;
+    private final boolean removeDefaultPort;
+    private final boolean removeDotSegments;
+    private final boolean removeTrailingSlash;
+    private final boolean sortQueryParameters;
+    private final boolean removeFragment;
+    private final boolean uppercasePercentEncoding;
+    private final boolean decodeUnreservedCharacters;
+
+    private UrlNormalizer(Set<NormalizationStep> steps) {
+        this.steps = steps;
+        this.lowercaseProtocol = steps.contains(NormalizationStep.LOWERCASE_PROTOCOL);
+        this.lowercaseHost = steps.contains(NormalizationStep.LOWERCASE_HOST);
+        this.removeWww = steps.contains(NormalizationStep.REMOVE_WWW);
+        this.removeDefaultPort = steps.contains(NormalizationStep.REMOVE_DEFAULT_PORT);
+        this.removeDotSegments = steps.contains(NormalizationStep.REMOVE_DOT_SEGMENTS);
+        this.removeTrailingSlash = steps.contains(NormalizationStep.REMOVE_TRAILING_SLASH);
+        this.sortQueryParameters = steps.contains(NormalizationStep.SORT_QUERY_PARAMETERS);
+        this.removeFragment = steps.contains(NormalizationStep.REMOVE_FRAGMENT);
+        this.uppercasePercentEncoding = steps.contains(NormalizationStep.UPPERCASE_PERCENT_ENCODING);
+        this.decodeUnreservedCharacters = steps.contains(NormalizationStep.DECODE_UNRESERVED_CHARACTERS);
+    }
+
+    /**
+     * Create a normalizer applying {@code steps}.
+     *
+     * @param steps to apply, the order is irrelevant
+     * @return normalizer
+     */
+    public static UrlNormalizer of(NormalizationStep... steps) {
+        return of(Arrays.asList(steps));
+    }
+
+    /**
+     * Create a normalizer applying {@code steps}.
+     *
+     * @param steps to apply, the order is irrelevant
+     * @return normalizer
+     */
+    public static UrlNormalizer of(Collection<NormalizationStep> steps) {
+        EnumSet<NormalizationStep> copy = EnumSet.noneOf(NormalizationStep.class);
+        copy.addAll(steps);
+        return new UrlNormalizer(copy);
+    }
+
+    /**
+     * Create a normalizer applying all steps.
+     *
+     * @return normalizer
+     */
+    public static UrlNormalizer all() {
+        return new UrlNormalizer(EnumSet.allOf(NormalizationStep.class));
+    }
+
+    /**
+     * Get the applied steps.
+     *
+     * @return applied steps
+     */
+    public Set<NormalizationStep> getSteps() {
+        return EnumSet.copyOf(steps);
+    }
+
+    /**
+     * Normalize {@code url}.
+     *
+     * @param url to normalize
+     * @return normalized url
+     */
+    public String normalize(CharSequence url) {
+        return normalize(url, new StringBuilder(url.length())).toString();
+    }
+
+    /**
+     * Normalize {@code url}, appending the result to {@code output}. Reusing {@code output} between calls avoids
+     * allocating a new buffer for every url.
+     *
+     * @param url    to normalize
+     * @param output to append the normalized url to
+     * @return {@code output}
+     */
+    public StringBuilder normalize(CharSequence url, StringBuilder output) {
+        int length = url.length();
+        int position = 0;
+        int defaultPort = -1;
+
+        int protocolEnd = UrlScanner.protocolEnd(url);
+        if (protocolEnd != -1) {
+            for (int i = 0; i < protocolEnd; i++) {
+                char c = url.charAt(i);
+                output.append(lowercaseProtocol ? toLowerCase(c) : c);
+            }
+            output.append("://");
+            defaultPort = defaultPort(url, protocolEnd);
+            position = protocolEnd + 3;
+        } else if (length >= 2 && url.charAt(0) == '/' && url.charAt(1) == '/') {
+            output.append("//");
+            position = 2;
+        }
+
+        int pathStart = indexOfAny(url, position, length, "/?#");
+        if (position != 0 || pathStart != 0) {
+            appendAuthority(url, position, pathStart, defaultPort, output);
+        }
+
+        int queryStart = indexOfAny(url, pathStart, length, "?#");
+        appendPath(url, pathStart, queryStart, output);
+
+        int fragmentStart = indexOfAny(url, queryStart, length, "#");
+        if (queryStart < fragmentStart) {
+            appendQuery(url, queryStart + 1, fragmentStart, output);
+        }
+
+        if (fragmentStart < length && !removeFragment) {
+            output.append('#');
+            appendComponent(url, fragmentStart + 1, length, false, output);
+        }
+        return output;
+    }
+
+    private void appendAuthority(CharSequence url, int start, int end, int defaultPort, StringBuilder output) {
+        int hostStart = start;
+        for (int i = start; i < end; i++) {
+            if (url.charAt(i) == '@') {
+                hostStart = i + 1;
+            }
+        }
+        appendComponent(url, start, hostStart, false, output);
+
+        int hostEnd = hostStart;
+        if (hostEnd < end && url.charAt(hostEnd) == '[') {
+            while (hostEnd < end && url.charAt(hostEnd++) != ']') {
+            }
+        }
+        while (hostEnd < end && url.charAt(hostEnd) != ':') {
+            hostEnd++;
+        }
+
+        if (removeWww && StringUtils.startsWithWww(url, hostStart, hostEnd)) {
+            hostStart += 4;
+        }
+        appendComponent(url, hostStart, hostEnd, lowercaseHost, output);
+
+        if (hostEnd < end && !(removeDefaultPort && isDefaultPort(url, hostEnd + 1, end, defaultPort))) {
+            output.append(url, hostEnd, end);
+        }
+    }
+
+    private void appendPath(CharSequence url, int start, int end, StringBuilder output) {
+        int pathStart = output.length();
+        int segmentStart = pathStart;
+
+        int i = start;
+        while (i < end) {
+            if (url.charAt(i) == '/') {
+                i++;
+                if (!removeDotSegments || !removeDotSegment(output, pathStart, segmentStart)) {
+                    output.append('/');
+                }
+                segmentStart = output.length();
+                continue;
+            }
+            i = appendCharacter(url, i, end, false, output);
+        }
+
+        if (removeDotSegments) {
+            removeDotSegment(output, pathStart, segmentStart);
+        }
+
+        int length = output.length();
+        if (removeTrailingSlash && length > pathStart && output.charAt(length - 1) == '/') {
+            output.setLength(length - 1);
+        }
+    }
+
+    private void appendQuery(CharSequence url, int start, int end, StringBuilder output) {
+        output.append('?');
+        if (!sortQueryParameters) {
+            appendComponent(url, start, end, false, output);
+            return;
+        }
+
+        int queryStart = output.length();
+        int[] bounds = null;
+        int count = 0;
+
+        int parameterStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && url.charAt(i) != '&') {
+                continue;
+            }
+
+            if (i > parameterStart) {
+                if (count > 0) {
+                    output.append('&');
+                }
+
+                int outputStart = output.length();
+                appendComponent(url, parameterStart, i, false, output);
+
+                if (count == 0) {
+                    bounds = new int[8];
+                } else if (count * 2 == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                bounds[count * 2] = outputStart;
+                bounds[count * 2 + 1] = output.length();
+                count++;
+            }
+            parameterStart = i + 1;
+        }
+
+        if (count == 0) {
+            output.setLength(queryStart - 1);
+        } else if (count > 1) {
+            sortParameters(output, queryStart, bounds, count);
+        }
+    }
+
+    private static void sortParameters(StringBuilder output, int queryStart, int[] bounds, int count) {
+        int length = output.length() - queryStart;
+        if (!ParameterSort.sort(output, bounds, count)) {
+            return;
+        }
+
+        char[] parameters = new char[length];
+        output.getChars(queryStart, output.length(), parameters, 0);
+        output.setLength(queryStart);
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                output.append('&');
+            }
+            int parameterStart = bounds[i * 2];
+            output.append(parameters, parameterStart - queryStart, bounds[i * 2 + 1] - parameterStart);
+        }
+    }
+
+    private void appendComponent(CharSequence url, int start, int end, boolean lowercase, StringBuilder output) {
+        int i = start;
+        while (i < end) {
+            i = appendCharacter(url, i, end, lowercase, output);
+        }
+    }
+
+    private int appendCharacter(CharSequence url, int i, int end, boolean lowercase, StringBuilder output) {
+        char c = url.charAt(i);
+        if (c != '%' || i + 2 >= end) {
+            output.append(lowercase ? toLowerCase(c) : c);
+            return i + 1;
+        }
+
+        int high = Character.digit(url.charAt(i + 1), 16);
+        int low = Character.digit(url.charAt(i + 2), 16);
+        if (high == -1 || low == -1) {
+            output.append(c);
+            return i + 1;
+        }
+
+        char decoded = (char) (high << 4 | low);
+        if (decodeUnreservedCharacters && isUnreserved(decoded)) {
+            output.append(lowercase ? toLowerCase(decoded) : decoded);
+        } else if (uppercasePercentEncoding) {
+            output.append('%').append(Character.toUpperCase(url.charAt(i + 1))).append(Character.toUpperCase(url.charAt(i + 2)));
+        } else {
+            output.append(url, i, i + 3);
+        }
+        return i + 3;
+    }
+
+    // removes the '.' or '..' segment ending the output, returns true if the output now ends with the path separator
+    private static boolean removeDotSegment(StringBuilder output, int pathStart, int segmentStart) {
+        int length = output.length() - segmentStart;
+        if (length == 0 || length > 2 || output.charAt(segmentStart) != '.' || (length == 2 && output.charAt(segmentStart + 1) != '.')) {
+            return false;
+        }
+
+        output.setLength(segmentStart);
+        if (length == 2 && segmentStart - 1 > pathStart) {
+            output.setLength(Math.max(output.lastIndexOf("/", segmentStart - 2) + 1, pathStart));
+        }
+        return true;
+    }
+
+    private static boolean isDefaultPort(CharSequence url, int start, int end, int defaultPort) {
+        if (end - start > 5) {
+            return false;
+        }
+
+        int port = 0;
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            port = port * 10 + (c - '0');
+        }
+
+        // an empty port is equivalent to the default one
+        return start == end || port == defaultPort;
+    }
+
+    private static int defaultPort(CharSequence url, int protocolEnd) {
+        if (protocolEnd == 4 && regionMatchesIgnoreCase(url, "http")) {
+            return 80;
+        }
+        if (protocolEnd == 5 && regionMatchesIgnoreCase(url, "https")) {
+            return 443;
+        }
+        return -1;
+    }
+
+    private static int indexOfAny(CharSequence url, int start, int end, String characters) {
+        for (int i = start; i < end; i++) {
+            if (characters.indexOf(url.charAt(i)) != -1) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence url, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (toLowerCase(url.charAt(i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : Character.toLowerCase(c);
+    }
+}
@@ -26,8 +26,6 @@ package com.github.alturkovic.url;
 
 import lombok.Data;
 
-import java.util.Optional;
-
 @Data
 class UrlParameter {
     private final String name;
@@ -45,22 +43,6 @@ class UrlParameter {
         return new UrlParameter(name, value);
     }
 
-    static Optional<UrlParameter> parse(String param) {
-        String[] parts = param.split("=");
-        if (parts.length == 1) {
-            String name = parts[0];
-            return Optional.of(UrlParameter.named(name));
-        }
-
-        if (parts.length == 2) {
-            String name = parts[0];
-            String value = parts[1];
-            return Optional.of(UrlParameter.of(name, value));
-        }
-
-        return Optional.empty();
-    }
-
     public String format() {
         if (StringUtils.isBlank(value)) {
             return name;
@@ -36,6 +36,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 final class UrlParseUtils {
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
     static URI parse(String url) {
         try {
@@ -96,6 +97,64 @@ final class UrlParseUtils {
         }
     }
 
+    /**
+     * Percent-encode the characters of {@code input} which are not allowed in a url component.
+     * <p>
+     * Existing percent-encoded octets and non-ASCII characters are kept as they are, like {@link URI} does when
+     * creating a url from components. Returns {@code input} itself if nothing has to be encoded.
+     *
+     * @param input   to encode
+     * @param allowed ASCII characters which are kept as they are
+     * @return encoded input
+     */
+    static String percentEncodeIllegal(final String input, final boolean[] allowed) {
+        if (input == null) {
+            return null;
+        }
+
+        StringBuilder result = null;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            boolean legal = c < 0x80 ? allowed[c] || (c == '%' && isPercentEncoded(input, i))
+                : !Character.isISOControl(c) && !Character.isSpaceChar(c);
+            if (legal) {
+                if (result != null) {
+                    result.append(c);
+                }
+                continue;
+            }
+
+            if (result == null) {
+                result = new StringBuilder(input.length() + 16).append(input, 0, i);
+            }
+            int end = Character.isHighSurrogate(c) && i + 1 < input.length() ? i + 2 : i + 1;
+            for (byte octet : input.substring(i, end).getBytes(UTF_8)) {
+                result.append('%').append(HEX_DIGITS[(octet >> 4) & 0xf]).append(HEX_DIGITS[octet & 0xf]);
+            }
+            i = end - 1;
+        }
+        return result == null ? input : result.toString();
+    }
+
+    static boolean[] allowedCharacters(final String punctuation) {
+        boolean[] allowed = new boolean[0x80];
+        for (char c = '0'; c <= '9'; c++) {
+            allowed[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            allowed[c] = true;
+            allowed[Character.toUpperCase(c)] = true;
+        }
+        for (char c : ("-_.!~*'()" + punctuation).toCharArray()) {
+            allowed[c] = true;
+        }
+        return allowed;
+    }
+
+    private static boolean isPercentEncoded(final String input, final int index) {
+        return index + 2 < input.length() && isASCIIHexDigit(input.charAt(index + 1)) && isASCIIHexDigit(input.charAt(index + 2));
+    }
+
     private static boolean isASCIIHexDigit(final int c) {
         return (c >= 0x0041 && c <= 0x0046) || (c >= 0x0061 && c <= 0x0066) || isASCIIDigit(c);
     }
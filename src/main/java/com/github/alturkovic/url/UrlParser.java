@@ -24,23 +24,25 @@
 
 package com.github.alturkovic.url;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
-
 import java.net.URI;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static com.github.alturkovic.url.DefaultPortMapper.getDefaultPort;
-import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
 
 /**
  * Used to extract values from urls.
  */
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class UrlParser {
     private final UrlBuilder builder;
+    private boolean shared;
+
+    // the parsed text, the builder only keeps the normalized components
+    private String source;
+
+    private UrlParser(UrlBuilder builder, String source) {
+        this.builder = builder;
+        this.source = source;
+    }
 
     /**
      * Initialize a new builder from a {@link String}.
@@ -51,7 +53,33 @@ public class UrlParser {
      * @return builder instance
      */
     public static UrlParser of(String url) {
-        return new UrlParser(UrlBuilder.of(url));
+        return new UrlParser(UrlBuilder.of(url), url);
+    }
+
+    /**
+     * Initialize a new parser from a {@link String}, sharing repeated component values through {@code interner}.
+     * <p>
+     * If the protocol is missing from it, 'https' will be used by default.
+     *
+     * @param url      to initialize from
+     * @param interner to share host, path segment and parameter name values
+     * @return parser instance
+     */
+    public static UrlParser of(String url, UrlInterner interner) {
+        return new UrlParser(UrlBuilder.of(url, interner), url);
+    }
+
+    /**
+     * Initialize a new parser from a {@link String}, applying the parse {@code options} in order.
+     * <p>
+     * If the protocol is missing from it, 'https' will be used by default.
+     *
+     * @param url     to initialize from
+     * @param options to apply
+     * @return parser instance
+     */
+    public static UrlParser of(String url, ParseOption... options) {
+        return new UrlParser(UrlBuilder.of(url, options), url);
     }
 
     /**
@@ -63,7 +91,7 @@ public class UrlParser {
      * @return builder instance
      */
     public static UrlParser of(URI url) {
-        return new UrlParser(UrlBuilder.of(url));
+        return new UrlParser(UrlBuilder.of(url), url.toString());
     }
 
     /**
@@ -80,6 +108,38 @@ public class UrlParser {
         return UrlBuilder.of(url).build();
     }
 
+    /**
+     * Report the components of {@code url} to {@code visitor} without parsing it into an object.
+     * <p>
+     * Components are reported as slices of {@code url} in the order they appear and are neither validated nor decoded,
+     * so visiting does not allocate. Urls without the protocol, e.g. 'example.com/a', are visited as well.
+     *
+     * @param url     to visit
+     * @param visitor to report the components to
+     */
+    public static void visit(CharSequence url, UrlVisitor visitor) {
+        UrlScanner.visit(url, visitor);
+    }
+
+    /**
+     * Reinitialize this parser from {@code url}, reusing the existing builder.
+     * <p>
+     * If the protocol is missing from it, 'https' will be used by default.
+     *
+     * @param url to initialize from
+     * @return this parser
+     * @throws IllegalStateException if this parser is shared, e.g. by {@link UrlParserCache}
+     */
+    public UrlParser reset(CharSequence url) {
+        if (shared) {
+            throw new IllegalStateException("Shared parser cannot be reset");
+        }
+
+        builder.reset(url);
+        this.source = url == null ? null : url.toString();
+        return this;
+    }
+
     /**
      * Get the protocol from the initialized url.
      *
@@ -98,6 +158,36 @@ public class UrlParser {
         return builder.getHost().build();
     }
 
+    /**
+     * Get the IP address of the host from the initialized url.
+     *
+     * @return the IP address, empty if the host is a domain name
+     * @see HostBuilder#getIpAddress()
+     */
+    public Optional<IpAddress> getIpAddress() {
+        return builder.getHost().getIpAddress();
+    }
+
+    /**
+     * Get the public suffix of the host from the initialized url, e.g. 'co.uk' for 'news.bbc.co.uk'.
+     *
+     * @return the public suffix, empty if the host is an IP address
+     * @see HostBuilder#getPublicSuffix()
+     */
+    public Optional<String> getPublicSuffix() {
+        return builder.getHost().getPublicSuffix();
+    }
+
+    /**
+     * Get the registrable domain of the host from the initialized url, e.g. 'bbc.co.uk' for 'news.bbc.co.uk'.
+     *
+     * @return the registrable domain, empty if the host is a public suffix or an IP address
+     * @see HostBuilder#getRegistrableDomain()
+     */
+    public Optional<String> getRegistrableDomain() {
+        return builder.getHost().getRegistrableDomain();
+    }
+
     /**
      * Get the port from the initialized url.
      * <p>
@@ -130,7 +220,7 @@ public class UrlParser {
      * @return the path segments
      */
     public Optional<List<String>> getPathSegments() {
-        return Optional.of(extractPathSegments(builder.getPath()));
+        return Optional.of(builder.getPath().getSegmentPaths());
     }
 
     /**
@@ -157,7 +247,7 @@ public class UrlParser {
      * @return the query parameters
      */
     public Map<String, List<String>> getQueryParameters() {
-        return asParameterMap(builder.getQuery().getParameters());
+        return asParameterMap(builder.getQuery());
     }
 
     /**
@@ -167,7 +257,7 @@ public class UrlParser {
      * @return {@code name} parameter values
      */
     public List<String> getQueryParameters(String name) {
-        return getQueryParameters().getOrDefault(name, emptyList());
+        return builder.getQuery().getValues(name);
     }
 
     /**
@@ -185,10 +275,10 @@ public class UrlParser {
      *
      * @param path to extract matrix parameters for
      * @return the matrix parameters on the {@code path}
+     * @throws IllegalArgumentException if the url path does not start with {@code path}
      */
     public Map<String, List<String>> getMatrixParameters(String path) {
-        PathBuilder pathBuilder = PathBuilder.of(path);
-        return getMatrixParameters(extractPathSegments(pathBuilder));
+        return getMatrixParameters(PathBuilder.of(path).getSegmentPaths());
     }
 
     /**
@@ -196,15 +286,17 @@ public class UrlParser {
      *
      * @param path to extract matrix parameters for
      * @return the matrix parameters on the {@code path}
+     * @throws IllegalArgumentException if the url path does not start with {@code path}, see
+     *                                  {@link PathBuilder#startsWith(List)}
      */
     public Map<String, List<String>> getMatrixParameters(List<String> path) {
         List<PathBuilder.PathSegment> segments = builder.getPath().getMatchingSegments(path);
         if (segments.isEmpty()) {
-            return emptyMap();
+            return new HashMap<>();
         }
 
         PathBuilder.PathSegment lastSegment = segments.get(segments.size() - 1);
-        return asParameterMap(lastSegment.getParameters().getParameters());
+        return lastSegment.hasParameters() ? asParameterMap(lastSegment.getParameters()) : new HashMap<>();
     }
 
     /**
@@ -263,6 +355,32 @@ public class UrlParser {
         return UrlBuilder.of(builder.build());
     }
 
+    // builds all lazy state up front, reading a shared parser must not write to it
+    UrlParser share() {
+        builder.prepare();
+        this.shared = true;
+        return this;
+    }
+
+    /**
+     * Get the path and query as they appear in the parsed text, without decoding or reformatting them.
+     *
+     * @return raw path with the query, '/' if the url has neither
+     */
+    String getRawPathAndQuery() {
+        if (source == null) {
+            return "/";
+        }
+
+        UrlScanner scanner = new UrlScanner().scan(source);
+        String path = scanner.pathStart == -1 ? "/" : source.substring(scanner.pathStart, scanner.pathEnd);
+        return scanner.queryStart == -1 ? path : path + "?" + source.substring(scanner.queryStart, scanner.queryEnd);
+    }
+
+    UrlBuilder copyBuilder() {
+        return builder.copy();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -301,20 +419,12 @@ public class UrlParser {
         return true;
     }
 
-    private Map<String, List<String>> asParameterMap(List<UrlParameter> parameters) {
+    private Map<String, List<String>> asParameterMap(ParameterBuilder parameters) {
         Map<String, List<String>> result = new HashMap<>();
-        for (UrlParameter parameter : parameters) {
-            result.computeIfAbsent(parameter.getName(), s -> new ArrayList<>()).add(parameter.getValue());
-        }
+        parameters.forEach((name, value) -> result.computeIfAbsent(name, s -> new ArrayList<>()).add(value));
         return result;
     }
 
-    private List<String> extractPathSegments(PathBuilder pathBuilder) {
-        return pathBuilder.getPathSegments().stream()
-            .map(PathBuilder.PathSegment::getPath)
-            .collect(Collectors.toList());
-    }
-
     private String getLastSegment(List<String> segments) {
         return segments.get(segments.size() - 1);
     }
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+/**
+ * Bounded cache of parsed urls keyed by the input string.
+ * <p>
+ * Admission and eviction use the frequency-aware W-TinyLFU policy, so popular urls stay cached while one-off urls
+ * do not push them out. Cached {@link UrlParser}s cannot be reset and are fully built before they are cached, so reading
+ * them does not modify them and they can be shared between threads. Use {@link #builder(String)} to get an independent
+ * {@link UrlBuilder}.
+ */
+public class UrlParserCache {
+    private final TinyLfuCache<String, UrlParser> cache;
+
+    /**
+     * Create a new cache.
+     *
+     * @param maximumSize maximum number of cached urls
+     */
+    public UrlParserCache(int maximumSize) {
+        this.cache = new TinyLfuCache<>(maximumSize);
+    }
+
+    /**
+     * Get the parsed {@code url}, parsing it only if it is not cached.
+     *
+     * @param url to parse
+     * @return shared parser instance
+     * @see UrlParser#of(String)
+     */
+    public UrlParser parse(String url) {
+        return cache.get(url, key -> UrlParser.of(key).share());
+    }
+
+    /**
+     * Get a new builder initialized from the parsed {@code url}.
+     * <p>
+     * Changes to the builder won't affect the cached url.
+     *
+     * @param url to parse
+     * @return builder instance
+     */
+    public UrlBuilder builder(String url) {
+        return parse(url).copyBuilder();
+    }
+
+    /**
+     * Get the number of cached urls.
+     *
+     * @return cached url count
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of lookups served from the cache.
+     *
+     * @return hit count
+     */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * Get the number of lookups that had to parse the url.
+     *
+     * @return miss count
+     */
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * Get the ratio of lookups served from the cache, {@code 1.0} if there were no lookups.
+     *
+     * @return hit rate
+     */
+    public double hitRate() {
+        return cache.hitRate();
+    }
+
+    /**
+     * Remove all cached urls.
+     */
+    public void clear() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Extract only the requested components and query parameters from raw urls.
+ * <p>
+ * Urls are scanned once without decoding or storing the components and parameters that were not requested,
+ * and the results are written as offsets into a reused {@link ProjectionResult}, so projecting does not allocate.
+ * Only the first occurrence of a repeated parameter is extracted.
+ * <p>
+ * Registration is not thread-safe, projecting using a fully registered projection is.
+ */
+public class UrlProjection {
+    private final Set<UrlComponent> components = EnumSet.noneOf(UrlComponent.class);
+    private UrlComponent[] requestedComponents = new UrlComponent[0];
+    private String[] parameterNames = new String[0];
+
+    /**
+     * Request the {@code component}.
+     *
+     * @param component to extract
+     * @return this projection
+     */
+    public UrlProjection component(UrlComponent component) {
+        if (components.add(component)) {
+            requestedComponents = components.toArray(new UrlComponent[0]);
+        }
+        return this;
+    }
+
+    /**
+     * Request the first value of the query parameter named {@code name}.
+     *
+     * @param name of the parameter to extract, case-sensitive
+     * @return this projection
+     * @throws IllegalArgumentException if {@code name} is blank or already requested
+     */
+    public UrlProjection parameter(String name) {
+        if (StringUtils.isBlank(name)) {
+            throw new IllegalArgumentException("Parameter name cannot be undefined");
+        }
+        if (Arrays.asList(parameterNames).contains(name)) {
+            throw new IllegalArgumentException("Parameter already requested: " + name);
+        }
+
+        parameterNames = Arrays.copyOf(parameterNames, parameterNames.length + 1);
+        parameterNames[parameterNames.length - 1] = name;
+        return this;
+    }
+
+    /**
+     * Create a new result holder that can be reused for projecting.
+     *
+     * @return empty result
+     */
+    public ProjectionResult newResult() {
+        return new ProjectionResult(parameterNames);
+    }
+
+    /**
+     * Project the {@code url} into {@code result}.
+     *
+     * @param url    to project, with or without the protocol
+     * @param result to populate
+     * @return {@code result}
+     */
+    public ProjectionResult project(CharSequence url, ProjectionResult result) {
+        result.reset(url, parameterNames);
+
+        UrlScanner scanner = result.getScanner().scan(url);
+        for (UrlComponent component : requestedComponents) {
+            setComponent(scanner, component, result);
+        }
+
+        if (parameterNames.length > 0 && scanner.queryStart != -1) {
+            projectParameters(url, scanner.queryStart, scanner.queryEnd, result);
+        }
+        return result;
+    }
+
+    /**
+     * Project the {@code url}.
+     *
+     * @param url to project, with or without the protocol
+     * @return projection result
+     */
+    public ProjectionResult project(CharSequence url) {
+        return project(url, newResult());
+    }
+
+    private static void setComponent(UrlScanner scanner, UrlComponent component, ProjectionResult result) {
+        switch (component) {
+            case HOST:
+                if (scanner.hostStart != -1) {
+                    result.component(component, scanner.hostStart, scanner.hostEnd);
+                }
+                break;
+            case PATH:
+                if (scanner.pathStart != -1) {
+                    result.component(component, scanner.pathStart, scanner.pathEnd);
+                }
+                break;
+            case QUERY:
+                if (scanner.queryStart != -1) {
+                    result.component(component, scanner.queryStart, scanner.queryEnd);
+                }
+                break;
+            case FRAGMENT:
+                if (scanner.fragmentStart != -1) {
+                    result.component(component, scanner.fragmentStart, scanner.fragmentEnd);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported component: " + component);
+        }
+    }
+
+    private void projectParameters(CharSequence url, int start, int end, ProjectionResult result) {
+        int remaining = parameterNames.length;
+        int parameterStart = start;
+        for (int i = start; i <= end && remaining > 0; i++) {
+            if (i < end && url.charAt(i) != '&') {
+                continue;
+            }
+
+            int nameEnd = parameterStart;
+            while (nameEnd < i && url.charAt(nameEnd) != '=') {
+                nameEnd++;
+            }
+
+            int index = indexOfName(url, parameterStart, nameEnd);
+            if (index != -1 && !result.hasParameter(index)) {
+                result.parameter(index, Math.min(nameEnd + 1, i), i);
+                remaining--;
+            }
+            parameterStart = i + 1;
+        }
+    }
+
+    private int indexOfName(CharSequence url, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return -1;
+        }
+
+        for (int i = 0; i < parameterNames.length; i++) {
+            String name = parameterNames[i];
+            if (name.length() == length && regionMatches(url, start, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence url, int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (url.charAt(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+/**
+ * Locates url components in raw text without decoding or copying them.
+ * <p>
+ * Component bounds are offsets into the scanned text, start inclusive and end exclusive, with -1 for missing
+ * components. Instances are mutable and meant to be reused. {@link #visit(CharSequence, UrlVisitor)} reports the
+ * same components, split into path segments and parameters, without an instance.
+ */
+final class UrlScanner {
+    CharSequence url;
+    int protocolEnd;
+    int userInfoStart;
+    int userInfoEnd;
+    int hostStart;
+    int hostEnd;
+    int portStart;
+    int portEnd;
+    int pathStart;
+    int pathEnd;
+    int queryStart;
+    int queryEnd;
+    int fragmentStart;
+    int fragmentEnd;
+
+    /**
+     * Scan {@code url}, which can omit the protocol, e.g. 'example.com/a', or be a path reference, e.g. '/a?b'.
+     *
+     * @param url to scan
+     * @return this scanner
+     */
+    UrlScanner scan(CharSequence url) {
+        this.url = url;
+        int length = url.length();
+
+        protocolEnd = protocolEnd(url);
+        int authorityStart = authorityStart(url, protocolEnd);
+        int authorityEnd = authorityEnd(url, authorityStart);
+
+        userInfoStart = userInfoEnd = hostStart = hostEnd = portStart = portEnd = -1;
+        if (authorityStart != -1) {
+            hostStart = hostStart(url, authorityStart, authorityEnd);
+            if (hostStart != authorityStart) {
+                userInfoStart = authorityStart;
+                userInfoEnd = hostStart - 1;
+            }
+
+            hostEnd = hostEnd(url, hostStart, authorityEnd);
+            if (hostEnd < authorityEnd) {
+                portStart = hostEnd + 1;
+                portEnd = authorityEnd;
+            }
+        }
+
+        pathStart = authorityEnd;
+        pathEnd = pathEnd(url, authorityEnd);
+        if (pathStart == pathEnd) {
+            pathStart = pathEnd = -1;
+        }
+
+        int position = pathEnd == -1 ? authorityEnd : pathEnd;
+        queryStart = queryEnd = fragmentStart = fragmentEnd = -1;
+        if (position < length && url.charAt(position) == '?') {
+            queryStart = position + 1;
+            queryEnd = queryEnd(url, queryStart);
+            position = queryEnd;
+        }
+
+        if (position < length) {
+            fragmentStart = position + 1;
+            fragmentEnd = length;
+        }
+        return this;
+    }
+
+    /**
+     * Report the components of {@code url} to {@code visitor} in the order they appear.
+     *
+     * @param url     to visit
+     * @param visitor to report to
+     */
+    static void visit(CharSequence url, UrlVisitor visitor) {
+        int length = url.length();
+
+        int protocolEnd = protocolEnd(url);
+        if (protocolEnd != -1) {
+            visitor.visitProtocol(url, 0, protocolEnd);
+        }
+
+        int authorityStart = authorityStart(url, protocolEnd);
+        int authorityEnd = authorityEnd(url, authorityStart);
+        if (authorityStart != -1) {
+            int hostStart = hostStart(url, authorityStart, authorityEnd);
+            if (hostStart != authorityStart) {
+                visitor.visitUserInfo(url, authorityStart, hostStart - 1);
+            }
+
+            int hostEnd = hostEnd(url, hostStart, authorityEnd);
+            visitor.visitHost(url, hostStart, hostEnd);
+            if (hostEnd < authorityEnd) {
+                visitor.visitPort(url, hostEnd + 1, authorityEnd);
+            }
+        }
+
+        int position = pathEnd(url, authorityEnd);
+        visitPath(url, authorityEnd, position, visitor);
+
+        if (position < length && url.charAt(position) == '?') {
+            int queryEnd = queryEnd(url, position + 1);
+            visitParameters(url, position + 1, queryEnd, '&', visitor, false);
+            position = queryEnd;
+        }
+
+        if (position < length) {
+            visitor.visitFragment(url, position + 1, length);
+        }
+    }
+
+    private static void visitPath(CharSequence url, int start, int end, UrlVisitor visitor) {
+        boolean rooted = start < end && url.charAt(start) == '/';
+        if (rooted) {
+            start++;
+        } else if (start == end) {
+            return;
+        }
+
+        int segmentStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && url.charAt(i) != '/') {
+                continue;
+            }
+
+            int segmentEnd = segmentStart;
+            while (segmentEnd < i && url.charAt(segmentEnd) != ';') {
+                segmentEnd++;
+            }
+
+            visitor.visitPathSegment(url, segmentStart, segmentEnd);
+            if (segmentEnd < i) {
+                visitParameters(url, segmentEnd + 1, i, ';', visitor, true);
+            }
+            segmentStart = i + 1;
+        }
+    }
+
+    private static void visitParameters(CharSequence url, int start, int end, char delimiter, UrlVisitor visitor, boolean matrix) {
+        int parameterStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && url.charAt(i) != delimiter) {
+                continue;
+            }
+
+            if (i > parameterStart) {
+                int nameEnd = parameterStart;
+                while (nameEnd < i && url.charAt(nameEnd) != '=') {
+                    nameEnd++;
+                }
+
+                int valueStart = nameEnd < i ? nameEnd + 1 : -1;
+                int valueEnd = nameEnd < i ? i : -1;
+                if (matrix) {
+                    visitor.visitMatrixParameter(url, parameterStart, nameEnd, valueStart, valueEnd);
+                } else {
+                    visitor.visitQueryParameter(url, parameterStart, nameEnd, valueStart, valueEnd);
+                }
+            }
+            parameterStart = i + 1;
+        }
+    }
+
+    static int protocolEnd(CharSequence url) {
+        int length = url.length();
+        for (int i = 0; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return i > 0 && i + 2 < length && url.charAt(i + 1) == '/' && url.charAt(i + 2) == '/' ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '+' && c != '-' && c != '.') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // -1 for path references, urls without the protocol are expected to start with the host
+    private static int authorityStart(CharSequence url, int protocolEnd) {
+        if (protocolEnd != -1) {
+            return protocolEnd + 3;
+        }
+        if (url.length() >= 2 && url.charAt(0) == '/' && url.charAt(1) == '/') {
+            return 2;
+        }
+        if (url.length() == 0 || isDelimiter(url.charAt(0))) {
+            return -1;
+        }
+        return 0;
+    }
+
+    private static int authorityEnd(CharSequence url, int authorityStart) {
+        if (authorityStart == -1) {
+            return 0;
+        }
+
+        int i = authorityStart;
+        while (i < url.length() && !isDelimiter(url.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int hostStart(CharSequence url, int start, int end) {
+        int hostStart = start;
+        for (int i = start; i < end; i++) {
+            if (url.charAt(i) == '@') {
+                hostStart = i + 1;
+            }
+        }
+        return hostStart;
+    }
+
+    private static int hostEnd(CharSequence url, int start, int end) {
+        int i = start;
+        if (i < end && url.charAt(i) == '[') {
+            while (i < end && url.charAt(i++) != ']') {
+            }
+        }
+        while (i < end && url.charAt(i) != ':') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int pathEnd(CharSequence url, int start) {
+        int i = start;
+        while (i < url.length() && url.charAt(i) != '?' && url.charAt(i) != '#') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int queryEnd(CharSequence url, int start) {
+        int i = start;
+        while (i < url.length() && url.charAt(i) != '#') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+}
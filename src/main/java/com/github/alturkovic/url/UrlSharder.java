@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+/**
+ * Assign urls to shards by their host, e.g. to partition crawl frontiers or deduplication state between nodes.
+ * <p>
+ * Hosts are normalized by lowercasing them and removing the 'www.' prefix and a trailing dot. The prefix is removed in
+ * any case and only if at least two labels follow, like {@link HostBuilder#withoutWww()} does. The normalized host,
+ * or optionally its registrable domain, is hashed using 64-bit FNV-1a over its UTF-8 encoding, so the hash is stable
+ * across processes and easy to reproduce in other languages. Hashes are mapped to shards using
+ * <a href="https://arxiv.org/abs/1406.2294">jump consistent hashing</a>, so growing from {@code n} to {@code n + 1}
+ * shards moves only about {@code 1 / (n + 1)} of the hosts.
+ * <p>
+ * Hosts are taken directly from the url string without parsing or allocating. Instances are thread-safe.
+ */
+public final class UrlSharder {
+    private final int shards;
+    private final boolean registrableDomain;
+
+    private UrlSharder(int shards, boolean registrableDomain) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shards);
+        }
+
+        this.shards = shards;
+        this.registrableDomain = registrableDomain;
+    }
+
+    /**
+     * Create a sharder assigning urls by their host, e.g. 'news.bbc.co.uk' and 'www.bbc.co.uk' to different shards.
+     *
+     * @param shards number of shards
+     * @return sharder
+     * @throws IllegalArgumentException if {@code shards} is not positive
+     */
+    public static UrlSharder byHost(int shards) {
+        return new UrlSharder(shards, false);
+    }
+
+    /**
+     * Create a sharder assigning urls by the registrable domain of their host, e.g. 'news.bbc.co.uk' and
+     * 'www.bbc.co.uk' to the same shard. Hosts without a registrable domain, like IP addresses, are assigned by host.
+     *
+     * @param shards number of shards
+     * @return sharder
+     * @throws IllegalArgumentException if {@code shards} is not positive
+     * @see HostBuilder#getRegistrableDomain()
+     */
+    public static UrlSharder byRegistrableDomain(int shards) {
+        return new UrlSharder(shards, true);
+    }
+
+    /**
+     * Get the number of shards.
+     *
+     * @return shard count
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Get the shard of {@code url}.
+     *
+     * @param url to assign, with or without the protocol, e.g. 'https://www.example.com/a' or 'example.com/a'
+     * @return shard between 0, inclusive, and the shard count, exclusive
+     */
+    public int shard(CharSequence url) {
+        return jumpConsistentHash(hash(url), shards);
+    }
+
+    /**
+     * Get the shard of {@code url}.
+     *
+     * @param url to assign
+     * @return shard between 0, inclusive, and the shard count, exclusive
+     */
+    public int shard(UrlParser url) {
+        return jumpConsistentHash(hash(url), shards);
+    }
+
+    /**
+     * Get the hash of the normalized host of {@code url}.
+     *
+     * @param url to hash, with or without the protocol, e.g. 'https://www.example.com/a' or 'example.com/a'
+     * @return stable 64-bit hash
+     */
+    public long hash(CharSequence url) {
+        int length = url.length();
+        int start = authorityStart(url);
+
+        int end = start;
+        int hostStart = start;
+        while (end < length) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '@') {
+                hostStart = end + 1;
+            }
+            end++;
+        }
+
+        return hashHost(url, hostStart, hostEnd(url, hostStart, end));
+    }
+
+    /**
+     * Get the hash of the normalized host of {@code url}.
+     *
+     * @param url to hash
+     * @return stable 64-bit hash
+     */
+    public long hash(UrlParser url) {
+        String host = url.getHost();
+        return hashHost(host, 0, host.length());
+    }
+
+    private long hashHost(CharSequence host, int start, int end) {
+        if (end > start && host.charAt(end - 1) == '.') {
+            end--;
+        }
+
+        if (registrableDomain) {
+            int domainStart = PublicSuffixList.getDefault().registrableDomainStart(host, start, end);
+            if (domainStart != -1) {
+                return Fnv1a.hashLowercaseUtf8(Fnv1a.OFFSET_BASIS, host, domainStart, end);
+            }
+        }
+
+        if (StringUtils.startsWithWww(host, start, end)) {
+            start += 4;
+        }
+        return Fnv1a.hashLowercaseUtf8(Fnv1a.OFFSET_BASIS, host, start, end);
+    }
+
+    private static int authorityStart(CharSequence url) {
+        int length = url.length();
+        for (int i = 0; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return i + 2 < length && url.charAt(i + 1) == '/' && url.charAt(i + 2) == '/' ? i + 3 : 0;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '+' && c != '-' && c != '.') {
+                break;
+            }
+        }
+        return length >= 2 && url.charAt(0) == '/' && url.charAt(1) == '/' ? 2 : 0;
+    }
+
+    private static int hostEnd(CharSequence url, int start, int end) {
+        if (start < end && url.charAt(start) == '[') {
+            for (int i = start; i < end; i++) {
+                if (url.charAt(i) == ']') {
+                    return i + 1;
+                }
+            }
+            return end;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (url.charAt(i) == ':') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    // Lamping and Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm"
+    private static int jumpConsistentHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+/**
+ * Receives the components of a url as they are scanned by {@link UrlParser#visit(CharSequence, UrlVisitor)}.
+ * <p>
+ * Components are reported as slices of the visited url, start inclusive and end exclusive, without decoding or
+ * copying them. All methods do nothing by default, so visitors only implement the components they need.
+ * <p>
+ * The slices match the values returned by {@link UrlParser} getters, except that {@link UrlParser} decodes
+ * percent-encoded characters which do not need encoding, e.g. '%7E' to '~' or '%2F' to '/'.
+ */
+public interface UrlVisitor {
+
+    /**
+     * Visit the protocol, e.g. 'https'.
+     *
+     * @param url   being visited
+     * @param start of the protocol
+     * @param end   of the protocol
+     */
+    default void visitProtocol(CharSequence url, int start, int end) {
+    }
+
+    /**
+     * Visit the user info, e.g. 'user:password'.
+     *
+     * @param url   being visited
+     * @param start of the user info
+     * @param end   of the user info
+     */
+    default void visitUserInfo(CharSequence url, int start, int end) {
+    }
+
+    /**
+     * Visit the host, e.g. 'example.com' or '[::1]'.
+     *
+     * @param url   being visited
+     * @param start of the host
+     * @param end   of the host
+     */
+    default void visitHost(CharSequence url, int start, int end) {
+    }
+
+    /**
+     * Visit the port, e.g. '8080'.
+     *
+     * @param url   being visited
+     * @param start of the port
+     * @param end   of the port
+     */
+    default void visitPort(CharSequence url, int start, int end) {
+    }
+
+    /**
+     * Visit a path segment without its matrix parameters, e.g. 'a' in '/a;b=c/d'.
+     *
+     * @param url   being visited
+     * @param start of the segment
+     * @param end   of the segment
+     */
+    default void visitPathSegment(CharSequence url, int start, int end) {
+    }
+
+    /**
+     * Visit a matrix parameter of the last visited path segment.
+     *
+     * @param url        being visited
+     * @param nameStart  of the parameter name
+     * @param nameEnd    of the parameter name
+     * @param valueStart of the parameter value or -1 if the parameter has no value
+     * @param valueEnd   of the parameter value or -1 if the parameter has no value
+     */
+    default void visitMatrixParameter(CharSequence url, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+    }
+
+    /**
+     * Visit a query parameter.
+     *
+     * @param url        being visited
+     * @param nameStart  of the parameter name
+     * @param nameEnd    of the parameter name
+     * @param valueStart of the parameter value or -1 if the parameter has no value
+     * @param valueEnd   of the parameter value or -1 if the parameter has no value
+     */
+    default void visitQueryParameter(CharSequence url, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+    }
+
+    /**
+     * Visit the fragment.
+     *
+     * @param url   being visited
+     * @param start of the fragment
+     * @param end   of the fragment
+     */
+    default void visitFragment(CharSequence url, int start, int end) {
+    }
+}
@@ -36,20 +36,28 @@ class UserInfo {
     private String password;
 
     static UserInfo of(String userInfo) {
+        UserInfo result = new UserInfo();
+        result.reset(userInfo);
+        return result;
+    }
+
+    void reset(String userInfo) {
+        this.user = null;
+        this.password = null;
+
         if (StringUtils.isBlank(userInfo)) {
-            return new UserInfo();
+            return;
         }
 
         String[] parts = userInfo.split(":");
-        if (parts.length == 1) {
-            return withUser(parts[0]);
+        this.user = parts[0];
+        if (parts.length > 1) {
+            this.password = parts[1];
         }
-
-        return new UserInfo(parts[0], parts[1]);
     }
 
-    static UserInfo withUser(String user) {
-        return new UserInfo(user, null);
+    UserInfo copy() {
+        return new UserInfo(user, password);
     }
 
     public String format() {
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheKeyGeneratorShould {
+
+    @Test
+    void removeIgnoredParameters() {
+        CacheKeyGenerator generator = new CacheKeyGenerator()
+            .ignoreParameter("fbclid")
+            .ignoreParameterPrefix("utm_");
+
+        assertThat(generator.key("https://example.com/a?utm_source=x&id=1&fbclid=abc&utm_=y&fbclidx=2#top"))
+            .isEqualTo("https://example.com/a?fbclidx=2&id=1");
+        assertThat(generator.key("https://example.com/a?utm_source=x&fbclid")).isEqualTo("https://example.com/a");
+        assertThat(generator.key("https://example.com/a#?utm_source=x")).isEqualTo("https://example.com/a");
+        assertThat(generator.isIgnored("utm")).isFalse();
+        assertThat(generator.isIgnored("utm_medium")).isTrue();
+    }
+
+    @Test
+    void sortParametersStablyByName() {
+        CacheKeyGenerator generator = new CacheKeyGenerator();
+
+        assertThat(generator.key("example.com?c=3&a=2&&b&a=1&ab=0")).isEqualTo("example.com?a=2&a=1&ab=0&b&c=3");
+        assertThat(generator.key("example.com?")).isEqualTo("example.com");
+    }
+
+    @Test
+    void hashKeyWithoutCreatingIt() {
+        CacheKeyGenerator generator = new CacheKeyGenerator().ignoreTrackingParameters();
+        String url = "https://example.com/p?utm_campaign=spring&q=shoes&gclid=1&page=2&_ga=3#reviews";
+
+        String key = generator.key(url);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+
+        assertThat(key).isEqualTo("https://example.com/p?page=2&q=shoes");
+        assertThat(generator.hash(url)).isEqualTo(hash);
+        assertThat(generator.hash("https://example.com/p?q=shoes&page=2&fbclid=4")).isEqualTo(hash);
+    }
+
+    @Test
+    void matchManyIgnoredNames() {
+        CacheKeyGenerator generator = new CacheKeyGenerator();
+        for (int i = 0; i < 500; i++) {
+            generator.ignoreParameter("tracker" + i);
+        }
+
+        assertThat(generator.isIgnored("tracker0")).isTrue();
+        assertThat(generator.isIgnored("tracker499")).isTrue();
+        assertThat(generator.isIgnored("tracker500")).isFalse();
+        assertThat(generator.key("a.com?tracker7=1&b=2&tracker77=3")).isEqualTo("a.com?b=2");
+    }
+
+    @Test
+    void keepManyParameters() {
+        StringBuilder url = new StringBuilder("a.com?");
+        StringBuilder expected = new StringBuilder("a.com?");
+        for (int i = 19; i >= 0; i--) {
+            url.append(i == 19 ? "" : "&").append((char) ('a' + i)).append('=').append(i);
+        }
+        for (int i = 0; i < 20; i++) {
+            expected.append(i == 0 ? "" : "&").append((char) ('a' + i)).append('=').append(i);
+        }
+
+        assertThat(new CacheKeyGenerator().key(url)).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void sortLargeQueriesStably() {
+        StringBuilder url = new StringBuilder("a.com?");
+        for (int i = 0; i < 20000; i++) {
+            url.append(i == 0 ? "" : "&").append('p').append(i % 100).append('=').append(i);
+        }
+
+        String key = new CacheKeyGenerator().key(url);
+
+        assertThat(key).startsWith("a.com?p0=0&p0=100&p0=200&").endsWith("&p99=19899&p99=19999");
+        assertThat(key).hasSize(url.length());
+    }
+
+    @Test
+    void matchNamesWithoutDecoding() {
+        CacheKeyGenerator generator = new CacheKeyGenerator().ignoreParameter("utm_source");
+        String url = "example.com?utm%5Fsource=a&q=1";
+
+        assertThat(generator.key(url)).isEqualTo("example.com?q=1&utm%5Fsource=a");
+        assertThat(generator.key(UrlNormalizer.of(NormalizationStep.DECODE_UNRESERVED_CHARACTERS).normalize(url)))
+            .isEqualTo("example.com?q=1");
+    }
+
+    @Test
+    void rejectBlankRules() {
+        assertThatThrownBy(() -> new CacheKeyGenerator().ignoreParameter(" ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CacheKeyGenerator().ignoreParameterPrefix(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
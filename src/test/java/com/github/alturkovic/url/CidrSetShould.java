@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CidrSetShould {
+
+    @Test
+    void containAddressesInRanges() {
+        CidrSet set = CidrSet.of("10.0.0.0/8", "192.168.1.0/24", "2001:db8::/32", "8.8.8.8");
+
+        assertThat(set.contains("10.1.2.3")).isTrue();
+        assertThat(set.contains("11.0.0.0")).isFalse();
+        assertThat(set.contains("192.168.1.255")).isTrue();
+        assertThat(set.contains("192.168.2.0")).isFalse();
+        assertThat(set.contains("[2001:db8:ffff::1]")).isTrue();
+        assertThat(set.contains("2001:db9::")).isFalse();
+        assertThat(set.contains("8.8.8.8")).isTrue();
+        assertThat(set.contains("8.8.8.9")).isFalse();
+        assertThat(set.contains("example.com")).isFalse();
+    }
+
+    @Test
+    void matchAlternativeAddressForms() {
+        CidrSet set = CidrSet.of("127.0.0.0/8");
+
+        assertThat(set.contains("0x7f.1")).isTrue();
+        assertThat(set.contains("2130706433")).isTrue();
+        assertThat(set.contains("[::ffff:127.0.0.1]")).isTrue();
+        assertThat(set.contains(IpAddress.parse("127.255.255.255").get())).isTrue();
+    }
+
+    @Test
+    void mergeOverlappingAndAdjacentRanges() {
+        List<String> ranges = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            ranges.add("10.0." + i + ".0/24");
+        }
+        ranges.add("10.0.5.0/24");
+        ranges.add("::/0");
+        ranges.add("::/1");
+
+        CidrSet set = CidrSet.of(ranges);
+
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(CidrSet.of("10.0.0.0/24", "10.0.2.0/24").size()).isEqualTo(2);
+        assertThat(CidrSet.of("0.0.0.0/0").contains("255.255.255.255")).isTrue();
+        assertThat(CidrSet.of("0.0.0.0/0").contains("::1")).isFalse();
+    }
+
+    @Test
+    void maskHostBits() {
+        assertThat(CidrSet.of("10.1.2.3/8").contains("10.200.0.0")).isTrue();
+        assertThat(CidrSet.of("fe80::1/10").contains("febf::")).isTrue();
+    }
+
+    @Test
+    void containNonPublicNetworks() {
+        CidrSet set = CidrSet.nonPublicNetworks();
+
+        assertThat(set.contains(UrlParser.of("http://localhost.example/"))).isFalse();
+        assertThat(set.contains(UrlParser.of("http://127.0.0.1:8080/admin"))).isTrue();
+        assertThat(set.contains(UrlParser.of("http://169.254.169.254/latest/meta-data"))).isTrue();
+        assertThat(set.contains(UrlParser.of("http://[::1]/"))).isTrue();
+        assertThat(set.contains(UrlParser.of("http://[fd00::1]/"))).isTrue();
+        assertThat(set.contains(UrlParser.of("http://93.184.216.34/"))).isFalse();
+        assertThat(set.contains(UrlParser.of("http://[2606:2800:220:1::]/"))).isFalse();
+    }
+
+    @Test
+    void containSpecialPurposeRanges() {
+        CidrSet set = CidrSet.nonPublicNetworks();
+
+        for (String host : asList("192.0.0.8", "192.0.2.1", "198.18.0.1", "198.19.255.255", "198.51.100.7", "203.0.113.9",
+            "[::a00:1]", "[64:ff9b:1::1]", "[100::1]", "[2001:db8::1]", "[2001:1::1]", "[3fff::1]", "[5f00::1]")) {
+            assertThat(set.contains(host)).as(host).isTrue();
+        }
+        assertThat(set.contains("198.20.0.1")).isFalse();
+        assertThat(set.contains("[2001:4860:4860::8888]")).isFalse();
+    }
+
+    @Test
+    void checkEmbeddedIpv4Addresses() {
+        CidrSet set = CidrSet.nonPublicNetworks();
+
+        assertThat(set.contains("[::ffff:10.0.0.1]")).isTrue();
+        assertThat(set.contains("[64:ff9b::10.0.0.1]")).isTrue();
+        assertThat(set.contains("[64:ff9b::a9fe:a9fe]")).isTrue();
+        assertThat(set.contains("[2002:c0a8:101::1]")).isTrue();
+        assertThat(set.contains("[::ffff:93.184.216.34]")).isFalse();
+        assertThat(set.contains("[64:ff9b::93.184.216.34]")).isFalse();
+        assertThat(set.contains("[2002:5db8:d822::1]")).isFalse();
+        assertThat(CidrSet.of("10.0.0.0/8").contains("[64:ff9b::10.0.0.1]")).isFalse();
+    }
+
+    @Test
+    void rejectInvalidRanges() {
+        assertThatThrownBy(() -> CidrSet.of("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CidrSet.of("::/129")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CidrSet.of("10.0.0.0/a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CidrSet.of("example.com/8")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FormDecoderShould {
+
+    @Test
+    void decodePairs() throws IOException {
+        assertThat(decode(new FormDecoder(), "a=1&b=hello+world&c=%C3%BC%3D%26&&flag&empty=&=x&d=1=2"))
+            .containsExactly("a=1", "b=hello world", "c=ü=&", "flag", "empty=", "=x", "d=1=2");
+    }
+
+    @Test
+    void decodeAcrossBufferBoundaries() throws IOException {
+        String body = "name=J%C3%B6rg+M%c3%BCller&city=Z%C3%BCrich&tags=a%2Cb";
+
+        for (int bufferSize = 1; bufferSize <= 8; bufferSize++) {
+            assertThat(decode(new FormDecoder(bufferSize, 64), body))
+                .containsExactly("name=Jörg Müller", "city=Zürich", "tags=a,b");
+        }
+    }
+
+    @Test
+    void keepInvalidEscapes() throws IOException {
+        assertThat(decode(new FormDecoder(2, 64), "a=%zz&b=%4&c=100%&d=%%41"))
+            .containsExactly("a=%zz", "b=%4", "c=100%", "d=%A");
+    }
+
+    @Test
+    void decodeChannel() throws IOException {
+        List<String> pairs = new ArrayList<>();
+        new FormDecoder(3, 64).decode(Channels.newChannel(new ByteArrayInputStream("x=1&y=%7E".getBytes(UTF_8))),
+            (name, value) -> pairs.add(name + "=" + value));
+
+        assertThat(pairs).containsExactly("x=1", "y=~");
+    }
+
+    @Test
+    void streamLargeContentWithBoundedMemory() throws IOException {
+        int pairs = 1_000_000;
+        InputStream input = new InputStream() {
+            private final byte[] pair = "key=value+%2B&".getBytes(UTF_8);
+            private long position;
+
+            @Override
+            public int read() {
+                return position == (long) pairs * pair.length ? -1 : pair[(int) (position++ % pair.length)];
+            }
+        };
+
+        long[] count = new long[1];
+        new FormDecoder(16, 16).decode(input, (name, value) -> {
+            assertThat(value).isEqualTo("value +");
+            count[0]++;
+        });
+
+        assertThat(count[0]).isEqualTo(pairs);
+    }
+
+    @Test
+    void rejectTooLongPairs() {
+        assertThatThrownBy(() -> decode(new FormDecoder(4, 8), "a=12345678"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FormDecoder(0, 8)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> decode(FormDecoder decoder, String body) throws IOException {
+        List<String> pairs = new ArrayList<>();
+        decoder.decode(new ByteArrayInputStream(body.getBytes(UTF_8)),
+            (name, value) -> pairs.add(value == null ? name : name + "=" + value));
+        return pairs;
+    }
+}
@@ -26,6 +26,9 @@ package com.github.alturkovic.url;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -70,4 +73,101 @@ class HostBuilderShould {
             .subdomain("a")
             .build()).isEqualTo("www.a.b.localhost.com");
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertToAscii() {
+        assertThat(HostBuilder.of("www.bücher.de").toAscii().build()).isEqualTo("www.xn--bcher-kva.de");
+        assertThat(HostBuilder.of("example.com").toAscii().build()).isEqualTo("example.com");
+    }
+
+    @Test
+    void convertToUnicode() {
+        assertThat(HostBuilder.of("www.xn--bcher-kva.de").toUnicode().build()).isEqualTo("www.bücher.de");
+        assertThat(HostBuilder.of("example.com").toUnicode().build()).isEqualTo("example.com");
+    }
+
+    @Test
+    void getPublicSuffix() {
+        assertThat(HostBuilder.of("news.bbc.co.uk").getPublicSuffix()).hasValue("co.uk");
+        assertThat(HostBuilder.of("www.Example.COM").getPublicSuffix()).hasValue("COM");
+        assertThat(HostBuilder.of("localhost").getPublicSuffix()).hasValue("localhost");
+        assertThat(HostBuilder.of("a.b.kawasaki.jp").getPublicSuffix()).hasValue("b.kawasaki.jp");
+        assertThat(HostBuilder.of("a.city.kawasaki.jp").getPublicSuffix()).hasValue("kawasaki.jp");
+        assertThat(HostBuilder.of("127.0.0.1").getPublicSuffix()).isEmpty();
+    }
+
+    @Test
+    void getRegistrableDomain() {
+        assertThat(HostBuilder.of("news.bbc.co.uk").getRegistrableDomain()).hasValue("bbc.co.uk");
+        assertThat(HostBuilder.of("example.com.").getRegistrableDomain()).hasValue("example.com");
+        assertThat(HostBuilder.of("a.b.kawasaki.jp").getRegistrableDomain()).hasValue("a.b.kawasaki.jp");
+        assertThat(HostBuilder.of("www.city.kawasaki.jp").getRegistrableDomain()).hasValue("city.kawasaki.jp");
+        assertThat(HostBuilder.of("www.食狮.中国").getRegistrableDomain()).hasValue("食狮.中国");
+        assertThat(HostBuilder.of("www.xn--85x722f.xn--fiqs8s").getRegistrableDomain()).hasValue("xn--85x722f.xn--fiqs8s");
+        assertThat(HostBuilder.of("co.uk").getRegistrableDomain()).isEmpty();
+        assertThat(HostBuilder.of("[::1]").getRegistrableDomain()).isEmpty();
+    }
+
+    @Test
+    void canonicalizeIpAddress() {
+        assertThat(HostBuilder.of("0x7f.1").isIpAddress()).isTrue();
+        assertThat(HostBuilder.of("example.com").isIpAddress()).isFalse();
+        assertThat(HostBuilder.of("0x7f.1").canonicalizeIpAddress().build()).isEqualTo("127.0.0.1");
+        assertThat(HostBuilder.of("[2001:DB8:0:0::1]").canonicalizeIpAddress().build()).isEqualTo("[2001:db8::1]");
+        assertThat(HostBuilder.of("example.com").canonicalizeIpAddress().build()).isEqualTo("example.com");
+    }
+
+    @Test
+    void manipulateLabels() {
+        HostBuilder builder = HostBuilder.of("api.us.example.com");
+
+        assertThat(builder.labelCount()).isEqualTo(4);
+        assertThat(builder.label(1)).isEqualTo("us");
+
+        assertThat(builder.replaceLabel(1, "eu").build()).isEqualTo("api.eu.example.com");
+        assertThat(builder.removeLabel(0).build()).isEqualTo("eu.example.com");
+        assertThat(builder.addLabel(0, "cdn").build()).isEqualTo("cdn.eu.example.com");
+        assertThat(builder.addLabel("local").build()).isEqualTo("cdn.eu.example.com.local");
+        assertThat(builder.labelCount()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectInvalidLabels() {
+        HostBuilder builder = HostBuilder.of("example.com");
+
+        assertThatThrownBy(() -> builder.addLabel("a.b")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.replaceLabel(0, " ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.label(2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> builder.removeLabel(1).removeLabel(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reuseBuiltHostUntilModified() {
+        String host = "www.example.com";
+        HostBuilder builder = HostBuilder.of(host);
+
+        assertThat(builder.withWww().build()).isSameAs(host);
+        assertThat(HostBuilder.of("www.com").withoutWww().build()).isEqualTo("www.com");
+
+        String built = builder.subdomain("a.b").build();
+        assertThat(built).isEqualTo("www.a.b.example.com");
+        assertThat(builder.build()).isSameAs(built);
+
+        HostBuilder copy = builder.copy().withoutWww();
+        assertThat(copy.build()).isEqualTo("a.b.example.com");
+        assertThat(builder.build()).isEqualTo("www.a.b.example.com");
+    }
+
+    @Test
+    void matchWwwIgnoringCaseLikeNormalizer() {
+        assertThat(HostBuilder.of("WWW.Example.com").withoutWww().build()).isEqualTo("Example.com");
+        assertThat(HostBuilder.of("Www.example.com").withWww().build()).isEqualTo("Www.example.com");
+
+        List<String> hosts = asList("www.example.com", "WWW.example.com", "www.com", "www", "wwww.example.com",
+            "www2.example.com", "example.www.com");
+        for (String host : hosts) {
+            boolean removed = !HostBuilder.of(host).withoutWww().build().equals(host);
+            assertThat(StringUtils.startsWithWww(host, 0, host.length())).as(host).isEqualTo(removed);
+        }
+    }
+}
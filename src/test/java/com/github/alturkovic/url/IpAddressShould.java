@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IpAddressShould {
+
+    @Test
+    void parseIpv4() {
+        IpAddress address = IpAddress.parse("192.168.0.1").get();
+
+        assertThat(address.isIpv4()).isTrue();
+        assertThat(address.isIpv4Mapped()).isTrue();
+        assertThat(address.getHigh()).isZero();
+        assertThat(address.getLow()).isEqualTo(0xffffc0a80001L);
+        assertThat(address).hasToString("192.168.0.1");
+    }
+
+    @Test
+    void parseShortenedIpv4Forms() {
+        assertThat(IpAddress.parse("127.1").map(IpAddress::toString)).hasValue("127.0.0.1");
+        assertThat(IpAddress.parse("0177.0.0.1").map(IpAddress::toString)).hasValue("127.0.0.1");
+        assertThat(IpAddress.parse("0x7f.0x0.0.1").map(IpAddress::toString)).hasValue("127.0.0.1");
+        assertThat(IpAddress.parse("2130706433").map(IpAddress::toString)).hasValue("127.0.0.1");
+        assertThat(IpAddress.parse("10.0.65535").map(IpAddress::toString)).hasValue("10.0.255.255");
+        assertThat(IpAddress.parse("1.2.3.4.").map(IpAddress::toString)).hasValue("1.2.3.4");
+    }
+
+    @Test
+    void parseIpv6() {
+        assertThat(IpAddress.parse("[2001:DB8:0:0:0:0:0:1]").map(IpAddress::toString)).hasValue("2001:db8::1");
+        assertThat(IpAddress.parse("::").map(IpAddress::toString)).hasValue("::");
+        assertThat(IpAddress.parse("::1").map(IpAddress::toString)).hasValue("::1");
+        assertThat(IpAddress.parse("1::").map(IpAddress::toString)).hasValue("1::");
+        assertThat(IpAddress.parse("1:0:0:2:0:0:0:3").map(IpAddress::toString)).hasValue("1:0:0:2::3");
+        assertThat(IpAddress.parse("1:0:0:2:0:0:3:4").map(IpAddress::toString)).hasValue("1::2:0:0:3:4");
+        assertThat(IpAddress.parse("1:2:3:4:5:6:7::").map(IpAddress::toString)).hasValue("1:2:3:4:5:6:7:0");
+        assertThat(IpAddress.parse("fe80::1%eth0").map(IpAddress::toString)).hasValue("fe80::1");
+        assertThat(IpAddress.parse("::1").map(IpAddress::isIpv4)).hasValue(false);
+    }
+
+    @Test
+    void parseIpv4MappedIpv6() {
+        IpAddress mapped = IpAddress.parse("[::FFFF:127.0.0.1]").get();
+
+        assertThat(mapped.isIpv4()).isFalse();
+        assertThat(mapped.isIpv4Mapped()).isTrue();
+        assertThat(mapped.getLow()).isEqualTo(IpAddress.parse("127.0.0.1").get().getLow());
+        assertThat(mapped).hasToString("::ffff:127.0.0.1");
+        assertThat(IpAddress.parse("64:ff9b::1.2.3.4").map(IpAddress::toString)).hasValue("64:ff9b::102:304");
+    }
+
+    @Test
+    void rejectInvalidAddresses() {
+        assertThat(IpAddress.isIpAddress("example.com")).isFalse();
+        assertThat(IpAddress.isIpAddress("1.2.3.4.5")).isFalse();
+        assertThat(IpAddress.isIpAddress("256.0.0.1")).isFalse();
+        assertThat(IpAddress.isIpAddress("4294967296")).isFalse();
+        assertThat(IpAddress.isIpAddress("1.2.3.4.com")).isFalse();
+        assertThat(IpAddress.isIpAddress("1:2:3:4:5:6:7")).isFalse();
+        assertThat(IpAddress.isIpAddress("1:2:3:4:5:6:7:8:9")).isFalse();
+        assertThat(IpAddress.isIpAddress("1::2::3")).isFalse();
+        assertThat(IpAddress.isIpAddress("12345::")).isFalse();
+        assertThat(IpAddress.isIpAddress(":1")).isFalse();
+        assertThat(IpAddress.isIpAddress("1:")).isFalse();
+        assertThat(IpAddress.isIpAddress("::1.2.3")).isFalse();
+        assertThat(IpAddress.isIpAddress("::01.2.3.4")).isFalse();
+        assertThat(IpAddress.isIpAddress("[::1")).isFalse();
+        assertThat(IpAddress.isIpAddress("")).isFalse();
+    }
+
+    @Test
+    void formatUrlHost() {
+        assertThat(IpAddress.parse("0x7f.1").map(IpAddress::toHost)).hasValue("127.0.0.1");
+        assertThat(IpAddress.parse("::1").map(IpAddress::toHost)).hasValue("[::1]");
+    }
+
+    @Test
+    void compareByValue() {
+        assertThat(IpAddress.parse("127.1")).isEqualTo(IpAddress.parse("127.0.0.1"));
+        assertThat(IpAddress.parse("[::1]")).isEqualTo(IpAddress.parse("0:0::1"));
+        assertThat(IpAddress.parse("::ffff:127.0.0.1")).isNotEqualTo(IpAddress.parse("127.0.0.1"));
+    }
+}
@@ -29,19 +29,29 @@ import org.junit.jupiter.api.Test;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class ParameterBuilderShould {
 
     @Test
-    void dropInvalidParameters() {
+    void splitParametersOnFirstEquals() {
         assertThat(ParameterBuilder.of("a=b=c", "&").build("&"))
-            .isNull();
+            .isEqualTo("a=b=c");
 
         assertThat(ParameterBuilder.of("a=b?c=d", "&").build("&"))
-            .isNull();
+            .isEqualTo("a=b?c=d");
 
-        assertThat(ParameterBuilder.of("a=b&c=d=e", "&").build("&"))
-            .isEqualTo("a=b");
+        assertThat(ParameterBuilder.of("a=b&token=abc==", "&").getValues("token"))
+            .containsExactly("abc==");
+    }
+
+    @Test
+    void skipEmptyParameters() {
+        assertThat(ParameterBuilder.of("&a=1&&b=&", "&").build("&"))
+            .isEqualTo("a=1&b");
+
+        assertThat(ParameterBuilder.of("a=1;;b=2", ";;").build("&"))
+            .isEqualTo("a=1&b=2");
     }
 
     @Test
@@ -54,6 +64,16 @@ class ParameterBuilderShould {
         assertThat(parameter.build("&")).isEqualTo("a=1&a&b=2&c=3&c=4");
     }
 
+    @Test
+    void rejectUndefinedParameterNames() {
+        ParameterBuilder parameter = ParameterBuilder.of("=1&a=2", "&");
+
+        assertThatThrownBy(() -> parameter.add((String) null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parameter.add(" ", "1")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(parameter.count()).isEqualTo(2);
+        assertThat(parameter.build("&")).isEqualTo("=1&a=2");
+    }
+
     @Test
     void addParameters() {
         ParameterBuilder parameter = ParameterBuilder.of("a=1", "&");
@@ -97,4 +117,56 @@ class ParameterBuilderShould {
         parameter.removeBy((name, value) -> "2".equals(value));
         assertThat(parameter.build("&")).isEqualTo("a=1&a&c=3");
     }
-}
\ No newline at end of file
+
+    @Test
+    void resetParameters() {
+        ParameterBuilder parameter = ParameterBuilder.of("a=1&b=2", "&");
+
+        assertThat(parameter.reset("c=3", "&").build("&")).isEqualTo("c=3");
+        assertThat(parameter.reset(null, "&").build("&")).isNull();
+    }
+
+    @Test
+    void reuseSourceQueryWhenUnchanged() {
+        String source = "a=1&b";
+        ParameterBuilder parameter = ParameterBuilder.of(source, "&");
+
+        assertThat(parameter.build("&")).isSameAs(source);
+        assertThat(ParameterBuilder.of("a=1&b&c=", "&").build("&")).isEqualTo("a=1&b&c");
+        assertThat(parameter.build(";")).isEqualTo("a=1;b");
+        assertThat(parameter.add("d").build(";")).isEqualTo("a=1;b;d");
+    }
+
+    @Test
+    void keepInsertionOrderWhenModifyingLargeQueries() {
+        ParameterBuilder parameter = new ParameterBuilder().reserve(300);
+        for (int i = 0; i < 300; i++) {
+            parameter.add("p" + i, String.valueOf(i));
+        }
+
+        for (int i = 0; i < 300; i += 2) {
+            parameter.remove("p" + i);
+        }
+        parameter.set("p1", "x").add("p3", "y").removeBy((name, value) -> !name.equals("p1") && !name.equals("p3"));
+
+        assertThat(parameter.build("&")).isEqualTo("p3=3&p1=x&p3=y");
+        assertThat(parameter.getValues("p3")).containsExactly("3", "y");
+        assertThat(parameter.getValues("p0")).isEmpty();
+    }
+
+    @Test
+    void readRemovedParametersWithoutModifyingSource() {
+        ParameterBuilder parameter = ParameterBuilder.of("a=1&b=2&a=3&c=4", "&").remove("a");
+        ParameterBuilder copy = parameter.copy();
+
+        assertThat(parameter.count()).isEqualTo(2);
+        assertThat(parameter.getValues("b")).containsExactly("2");
+        assertThat(parameter.getValues("c")).containsExactly("4");
+        assertThat(copy.build("&")).isEqualTo("b=2&c=4");
+
+        parameter.add("a", "5");
+        assertThat(parameter.build("&")).isEqualTo("b=2&c=4&a=5");
+        assertThat(parameter.getValues("a")).containsExactly("5");
+        assertThat(copy.add("d").build("&")).isEqualTo("b=2&c=4&d");
+    }
+}
@@ -26,6 +26,8 @@ package com.github.alturkovic.url;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -91,4 +93,96 @@ class PathBuilderShould {
             .set("c", "2")
         ).build()).isEqualTo("/a;b=1;c=2");
     }
-}
\ No newline at end of file
+
+    @Test
+    void copyMatrixParametersIndependently() {
+        PathBuilder original = PathBuilder.of("/a;b=1");
+        PathBuilder copy = original.copy().parameters(params -> params.set("b", "2"));
+
+        assertThat(original.build()).isEqualTo("/a;b=1");
+        assertThat(copy.build()).isEqualTo("/a;b=2");
+    }
+
+    @Test
+    void resetReusingSegments() {
+        PathBuilder path = PathBuilder.of("/a;b=1/c/d");
+        PathBuilder.PathSegment last = path.getPathSegments().get(2);
+
+        assertThat(path.reset("/e/f;g=2").build()).isEqualTo("/e/f;g=2");
+        assertThat(path.getPathSegments().get(0)).isSameAs(last);
+        assertThat(path.reset("").build()).isNull();
+        assertThat(path.reset("/").build()).isEqualTo("/");
+    }
+
+    @Test
+    void reuseSourcePathWhenUnchanged() {
+        String source = "/a;b=1/c/";
+        PathBuilder path = PathBuilder.of(source);
+
+        assertThat(path.build()).isSameAs(source);
+        assertThat(PathBuilder.of("/a;b=1;/c").build()).isEqualTo("/a;b=1/c");
+
+        path.parameters(parameters -> parameters.add("d", "2"));
+        assertThat(path.build()).isEqualTo("/a;b=1/c/;d=2");
+        assertThat(path.build()).isSameAs(path.build());
+    }
+
+    @Test
+    void matchPrefixWithoutThrowing() {
+        PathBuilder path = PathBuilder.of("/a/b;c=1/d");
+
+        assertThat(path.matchingSegments(asList("a", "b", "x"))).isEqualTo(2);
+        assertThat(path.startsWith("/a/b")).isTrue();
+        assertThat(path.startsWith(asList("a", "b", "d", "e"))).isFalse();
+        assertThat(PathBuilder.of("/a/b/d").matchingSegments(asList("a", "b", "d", "e"))).isEqualTo(3);
+        assertThat(PathBuilder.of("/a/bc").startsWith("/a/b")).isFalse();
+    }
+
+    @Test
+    void readUnsplitSegmentsWithoutModifyingPath() {
+        PathBuilder path = PathBuilder.of("/a/b");
+        List<PathBuilder.PathSegment> segments = path.getPathSegments();
+
+        assertThat(path.getPathSegments()).isNotSameAs(segments).isEqualTo(segments);
+        assertThat(path.build()).isEqualTo("/a/b");
+
+        path.parameters(parameters -> parameters.add("c", "1"));
+        assertThat(path.build()).isEqualTo("/a/b;c=1");
+        assertThat(path.getPathSegments().get(0).hasParameters()).isFalse();
+        assertThat(segments.get(1).hasParameters()).isFalse();
+    }
+
+    @Test
+    void keepParametersPerSegment() {
+        List<PathBuilder.PathSegment> segments = PathBuilder.of("/a;x=1/b/c").getPathSegments();
+
+        segments.get(1).getParameters().add("y", "2");
+
+        assertThat(segments.get(1).getParameters()).isNotSameAs(segments.get(2).getParameters());
+        assertThat(segments.get(2).hasParameters()).isFalse();
+    }
+
+    @Test
+    void removeDotSegments() {
+        assertThat(PathBuilder.of("/a/b/c/./../../g").removeDotSegments().build()).isEqualTo("/a/g");
+        assertThat(PathBuilder.of("/a/./b/../c").removeDotSegments().build()).isEqualTo("/a/c");
+        assertThat(PathBuilder.of("/a/b/..").removeDotSegments().build()).isEqualTo("/a/");
+        assertThat(PathBuilder.of("/../a/%2E%2e/b/.").removeDotSegments().build()).isEqualTo("/b/");
+        assertThat(PathBuilder.of("/a/..b/.../c").removeDotSegments().build()).isEqualTo("/a/..b/.../c");
+        assertThat(PathBuilder.of("/a//b/").removeDotSegments().build()).isEqualTo("/a//b/");
+    }
+
+    @Test
+    void removeDotSegmentsAroundMatrixParameters() {
+        assertThat(PathBuilder.of("/a;b=1/./c/../d").removeDotSegments().build()).isEqualTo("/a;b=1/d");
+        assertThat(PathBuilder.of("/a;b=1/c/..;d=2").removeDotSegments().build()).isEqualTo("/a;b=1/c/..;d=2");
+        assertThat(PathBuilder.of("/a;b=1/c/..").removeDotSegments().build()).isEqualTo("/a;b=1/");
+    }
+
+    @Test
+    void collapseEmptySegments() {
+        assertThat(PathBuilder.of("//a//./b/").removeDotSegments(true).build()).isEqualTo("/a/b/");
+        assertThat(PathBuilder.of("/a;b=1//c//").removeDotSegments(true).build()).isEqualTo("/a;b=1/c/");
+        assertThat(PathBuilder.of("//").removeDotSegments(true).build()).isEqualTo("/");
+    }
+}
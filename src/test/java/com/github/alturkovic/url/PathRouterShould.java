@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import static com.github.alturkovic.url.UrlParser.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathRouterShould {
+
+    @Test
+    void routeLiteralPaths() {
+        PathRouter<String> router = new PathRouter<String>()
+            .register("/", "root")
+            .register("/users", "users")
+            .register("/users/all", "all");
+
+        assertThat(router.route("/").map(RouteMatch::getValue)).hasValue("root");
+        assertThat(router.route("/users").map(RouteMatch::getValue)).hasValue("users");
+        assertThat(router.route("/users/all").map(RouteMatch::getValue)).hasValue("all");
+        assertThat(router.route("/user")).isEmpty();
+        assertThat(router.route("/users/")).isEmpty();
+    }
+
+    @Test
+    void captureVariablesAsOffsets() {
+        PathRouter<String> router = new PathRouter<String>()
+            .register("/users/{id}/orders/{orderId}", "order");
+
+        RouteMatch<String> match = router.newMatch();
+        String path = "/users/42/orders/abc";
+
+        assertThat(router.route(path, match)).isTrue();
+        assertThat(match.getValue()).isEqualTo("order");
+        assertThat(match.getVariableCount()).isEqualTo(2);
+        assertThat(match.getVariableName(0)).isEqualTo("id");
+        assertThat(match.getVariableStart(0)).isEqualTo(7);
+        assertThat(match.getVariableEnd(0)).isEqualTo(9);
+        assertThat(match.getVariable("orderId")).hasToString("abc");
+        assertThat(match.getPath()).isSameAs(path);
+    }
+
+    @Test
+    void preferLiteralsOverParameters() {
+        PathRouter<String> router = new PathRouter<String>()
+            .register("/users/{id}", "user")
+            .register("/users/me", "me")
+            .register("/users/{id}/posts", "posts")
+            .register("/users/me/settings", "settings");
+
+        assertThat(router.route("/users/me").map(RouteMatch::getValue)).hasValue("me");
+        assertThat(router.route("/users/mel").map(RouteMatch::getValue)).hasValue("user");
+        assertThat(router.route("/users/me/posts").map(RouteMatch::getValue)).hasValue("posts");
+        assertThat(router.route("/users/me/settings").map(RouteMatch::getValue)).hasValue("settings");
+    }
+
+    @Test
+    void routeRemainderToCatchAll() {
+        PathRouter<String> router = new PathRouter<String>()
+            .register("/static/{*file}", "static")
+            .register("/static/{name}", "named");
+
+        assertThat(router.route("/static/a.css").map(RouteMatch::getValue)).hasValue("named");
+        assertThat(router.route("/static/css/a.css")
+            .map(match -> match.getVariable("file").toString())).hasValue("css/a.css");
+        assertThat(router.route("/static/")).isEmpty();
+    }
+
+    @Test
+    void routeUrlPath() {
+        PathRouter<String> router = new PathRouter<String>()
+            .register("/watch/{id}", "watch");
+
+        assertThat(router.route(parse("youtube.com/watch/abc?t=10"))
+            .map(match -> match.getVariable("id").toString())).hasValue("abc");
+    }
+
+    @Test
+    void rejectInvalidTemplates() {
+        PathRouter<String> router = new PathRouter<String>().register("/a/{id}", "a");
+
+        assertThatThrownBy(() -> router.register("/a/{name}", "b")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> router.register("/{*all}/b", "b")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> router.register("/a{b}", "b")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> router.register("/{}", "b")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectUndefinedTemplates() {
+        PathRouter<String> router = new PathRouter<>();
+
+        assertThatThrownBy(() -> router.register(null, "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> router.register("", "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> router.register(" ", "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(router.route("/")).isEmpty();
+
+        router.register("/", "root");
+        assertThat(router.route("/").map(RouteMatch::getValue)).hasValue("root");
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersistentUrlShould {
+
+    @Test
+    void renderParsedUrl() {
+        assertThat(PersistentUrl.of("http://user@example.com:8080/a/b;c=d/?e=f&g#h"))
+            .hasToString("http://user@example.com:8080/a/b;c=d/?e=f&g#h");
+        assertThat(PersistentUrl.of("example.com")).hasToString("https://example.com");
+    }
+
+    @Test
+    void deriveVariantsWithoutModifyingBase() {
+        PersistentUrl base = PersistentUrl.of("example.com/search?q=url&page=1#top");
+
+        assertThat(base.withQueryParam("page", "2")).hasToString("https://example.com/search?q=url&page=2#top");
+        assertThat(base.withAddedQueryParam("q", "uri")).hasToString("https://example.com/search?q=url&page=1&q=uri#top");
+        assertThat(base.withoutQueryParam("q")).hasToString("https://example.com/search?page=1#top");
+        assertThat(base.withPath("/a/b").withPathSegment("c")).hasToString("https://example.com/a/b/c?q=url&page=1#top");
+        assertThat(base.withoutPath().withoutQuery().withoutFragment()).hasToString("https://example.com");
+        assertThat(base.withProtocol("HTTP").withPort(8080).withUserInfo("me"))
+            .hasToString("http://me@example.com:8080/search?q=url&page=1#top");
+        assertThat(base).hasToString("https://example.com/search?q=url&page=1#top");
+    }
+
+    @Test
+    void removeParametersFromLongQueries() {
+        PersistentUrl url = PersistentUrl.of("example.com");
+        for (int i = 0; i < 50000; i++) {
+            url = url.withAddedQueryParam("p" + i, "v");
+        }
+
+        PersistentUrl removed = url.withoutQueryParam("p0").withQueryParam("p49999", "x");
+
+        assertThat(removed.getQueryParameter("p0")).isEmpty();
+        assertThat(removed.getQueryParameter("p1")).hasValue("v");
+        assertThat(removed.getQuery().get()).startsWith("p1=v&p2=v&").endsWith("&p49998=v&p49999=x");
+        assertThat(url.getQueryParameter("p0")).hasValue("v");
+    }
+
+    @Test
+    void extractComponents() {
+        PersistentUrl url = PersistentUrl.of("example.com/a;b=c/d?e=f&e=g&h");
+
+        assertThat(url.getPath()).hasValue("/a;b=c/d");
+        assertThat(url.getPathSegments()).containsExactly("a;b=c", "d");
+        assertThat(url.getQuery()).hasValue("e=f&e=g&h");
+        assertThat(url.getQueryParameter("e")).hasValue("f");
+        assertThat(url.getQueryParameter("h")).hasValue("");
+        assertThat(url.getPort()).isEqualTo(443);
+        assertThat(url.getFragment()).isEmpty();
+    }
+
+    @Test
+    void convertToUri() {
+        PersistentUrl url = PersistentUrl.of("example.com/a").withPathSegment("b c");
+
+        assertThat(url.toUri()).isEqualTo(UrlParser.parse("example.com/a/b c"));
+        assertThat(url.asBuilder().build()).isEqualTo(UrlParser.parse("example.com/a/b c"));
+    }
+
+    @Test
+    void compareByValue() {
+        assertThat(PersistentUrl.of("example.com/a").withQueryParam("b", "1"))
+            .isEqualTo(PersistentUrl.of("example.com/a?b=1"))
+            .hasSameHashCodeAs(PersistentUrl.of("example.com/a?b=1"));
+    }
+
+    @Test
+    void validateDerivedValues() {
+        PersistentUrl url = PersistentUrl.of("example.com");
+
+        assertThatThrownBy(() -> url.withProtocol("ftp")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> url.withHost(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
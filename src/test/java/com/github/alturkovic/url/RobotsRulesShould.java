@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RobotsRulesShould {
+    private static final String ROBOTS_TXT = String.join("\n",
+        "# comment",
+        "User-agent: *",
+        "Disallow: /private",
+        "Allow: /private/public",
+        "Disallow: /*.pdf$",
+        "Disallow: /search*q=",
+        "",
+        "User-agent: examplebot",
+        "User-agent: otherbot",
+        "Disallow: /",
+        "Allow: /$"
+    );
+
+    @Test
+    void allowWhenNoRuleMatches() {
+        RobotsRules rules = RobotsRules.parse(ROBOTS_TXT, "crawler");
+
+        assertThat(rules.isAllowed("/")).isTrue();
+        assertThat(rules.isAllowed("/public")).isTrue();
+        assertThat(RobotsRules.parse("", "crawler").isAllowed("/private")).isTrue();
+    }
+
+    @Test
+    void preferLongestMatch() {
+        RobotsRules rules = RobotsRules.parse(ROBOTS_TXT, "crawler");
+
+        assertThat(rules.isAllowed("/private/data")).isFalse();
+        assertThat(rules.isAllowed("/private/public/data")).isTrue();
+    }
+
+    @Test
+    void preferAllowOnEquallyLongMatches() {
+        RobotsRules rules = RobotsRules.parse("User-agent: *\nDisallow: /page\nAllow: /page", "crawler");
+
+        assertThat(rules.isAllowed("/page")).isTrue();
+    }
+
+    @Test
+    void matchWildcardsAndAnchors() {
+        RobotsRules rules = RobotsRules.parse(ROBOTS_TXT, "crawler");
+
+        assertThat(rules.isAllowed("/files/a.pdf")).isFalse();
+        assertThat(rules.isAllowed("/files/a.pdf?download")).isTrue();
+        assertThat(rules.isAllowed("/search?lang=en&q=url")).isFalse();
+        assertThat(rules.isAllowed("/search?lang=en")).isTrue();
+    }
+
+    @Test
+    void useMostSpecificAgentGroup() {
+        RobotsRules rules = RobotsRules.parse(ROBOTS_TXT, "OtherBot");
+
+        assertThat(rules.isAllowed("/")).isTrue();
+        assertThat(rules.isAllowed("/public")).isFalse();
+        assertThat(rules.isAllowed("/robots.txt")).isTrue();
+    }
+
+    @Test
+    void evaluatePathAndQueryOfParsedUrl() {
+        RobotsRules rules = RobotsRules.parse(ROBOTS_TXT, "crawler");
+
+        assertThat(rules.isAllowed(UrlParser.of("example.com/search?q=url"))).isFalse();
+        assertThat(rules.isAllowed(UrlParser.of("example.com/private/public/a"))).isTrue();
+        assertThat(rules.isAllowed(UrlParser.of("example.com"))).isTrue();
+    }
+
+    @Test
+    void matchRawPathAndQueryOfUrls() {
+        RobotsRules rules = RobotsRules.parse("User-agent: *\nDisallow: /*?a=$\nDisallow: /%7Efoo", "crawler");
+
+        assertThat(rules.isAllowed("/x?a=")).isFalse();
+        assertThat(rules.isAllowed(UrlParser.of("http://h/x?a="))).isFalse();
+        assertThat(rules.isAllowed(URI.create("http://h/x?a="))).isFalse();
+        assertThat(rules.isAllowed(UrlParser.of("http://h/x?a=1"))).isTrue();
+        assertThat(rules.isAllowed(UrlParser.of("http://h/%7Efoo/bar"))).isFalse();
+        assertThat(rules.isAllowed(URI.create("http://h/%7Efoo/bar"))).isFalse();
+        assertThat(rules.isAllowed(UrlParser.of("http://h"))).isTrue();
+    }
+
+    @Test
+    void cacheRulesPerOrigin() {
+        AtomicInteger loads = new AtomicInteger();
+        RobotsRulesCache cache = new RobotsRulesCache("crawler", 10, url -> {
+            loads.incrementAndGet();
+            return url.equals("https://example.com/robots.txt") ? ROBOTS_TXT : null;
+        });
+
+        assertThat(cache.isAllowed(UrlParser.of("example.com/private"))).isFalse();
+        assertThat(cache.isAllowed(UrlParser.of("EXAMPLE.com/private/public"))).isTrue();
+        assertThat(cache.isAllowed(UrlParser.of("another.com/private"))).isTrue();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void keepNonDefaultPortsInRobotsUrl() {
+        List<String> loaded = new ArrayList<>();
+        RobotsRulesCache cache = new RobotsRulesCache("crawler", 10, url -> {
+            loaded.add(url);
+            return null;
+        });
+
+        cache.get(UrlParser.of("http://example.com:80/a"));
+        cache.get(UrlParser.of("http://example.com:8080/a"));
+
+        assertThat(loaded).containsExactly("http://example.com/robots.txt", "http://example.com:8080/robots.txt");
+    }
+
+    @Test
+    void loadEachOriginOnceForConcurrentLookups() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        RobotsRulesCache cache = new RobotsRulesCache("crawler", 10, url -> {
+            loads.incrementAndGet();
+            try {
+                loading.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ROBOTS_TXT;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.isAllowed(UrlParser.of("example.com/private"))));
+            }
+
+            Thread.sleep(50);
+            loading.countDown();
+
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isFalse();
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void retryFailedLoads() {
+        AtomicInteger loads = new AtomicInteger();
+        RobotsRulesCache cache = new RobotsRulesCache("crawler", 10, url -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("Unavailable");
+            }
+            return ROBOTS_TXT;
+        });
+
+        assertThatThrownBy(() -> cache.get(UrlParser.of("example.com/private"))).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.isAllowed(UrlParser.of("example.com/private"))).isFalse();
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubstringMatcherShould {
+
+    @Test
+    void reportEveryOccurrence() {
+        SubstringMatcher matcher = SubstringMatcher.compile(asList("he", "she", "his", "hers"), false);
+
+        List<Integer> found = new ArrayList<>();
+        matcher.scan("ushers", found::add);
+
+        assertThat(found).containsExactly(1, 0, 3);
+    }
+
+    @Test
+    void findDistinctPatternIds() {
+        SubstringMatcher matcher = SubstringMatcher.compile(asList("a", "ab", "bc", "c", "x"), false);
+
+        assertThat(matcher.findAll("abcabc")).containsExactly(0, 1, 2, 3);
+        assertThat(matcher.findAll("yyy")).isEmpty();
+    }
+
+    @Test
+    void reportDuplicatePatterns() {
+        SubstringMatcher matcher = SubstringMatcher.compile(asList("kit", "kit"), false);
+
+        assertThat(matcher.findAll("phishkit.zip")).containsExactly(0, 1);
+    }
+
+    @Test
+    void matchIgnoringCase() {
+        SubstringMatcher matcher = SubstringMatcher.compile(asList("PhishKit", "malware.exe"), true);
+
+        assertThat(matcher.containsAny("/downloads/PHISHKIT.zip")).isTrue();
+        assertThat(matcher.containsAny("/downloads/Malware.EXE")).isTrue();
+        assertThat(matcher.containsAny("/downloads/safe.exe")).isFalse();
+    }
+
+    @Test
+    void scanUrlComponent() {
+        SubstringMatcher matcher = SubstringMatcher.compile(asList("evil", "payload", "token"), false);
+        UrlParser url = UrlParser.of("https://evil.example.com/files/payload.bin?token=1");
+
+        assertThat(matcher.findAll(url, UrlComponent.HOST)).containsExactly(0);
+        assertThat(matcher.findAll(url, UrlComponent.PATH)).containsExactly(1);
+        assertThat(matcher.findAll(url, UrlComponent.QUERY)).containsExactly(2);
+        assertThat(matcher.containsAny(url, UrlComponent.FRAGMENT)).isFalse();
+    }
+
+    @Test
+    void matchNonAsciiPatterns() {
+        SubstringMatcher matcher = SubstringMatcher.compile(asList("教育", "个人"), false);
+
+        assertThat(matcher.findAll("教育.个人.hk")).containsExactly(0, 1);
+    }
+
+    @Test
+    void rejectEmptyPatterns() {
+        assertThatThrownBy(() -> SubstringMatcher.compile(asList("a", ""), false))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UrlClassifierShould {
+
+    @Test
+    void classifyUsingComponentPatterns() {
+        UrlClassifier classifier = new UrlClassifier()
+            .register(UrlComponent.HOST, "(^|\\.)google\\.com$", 1)
+            .register(UrlComponent.HOST, "^mail\\.", 2)
+            .register(UrlComponent.PATH, "\\.(pdf|docx?)$", 3)
+            .register(UrlComponent.PATH, "/v\\d+/", 4)
+            .register(UrlComponent.PATH, "^/admin", 5);
+
+        assertThat(classifier.classify(UrlParser.of("mail.google.com/api/v2/files/a.doc"))).containsExactly(1, 2, 3, 4);
+        assertThat(classifier.classify(UrlParser.of("notgoogle.com/admin"))).containsExactly(5);
+        assertThat(classifier.classify(UrlParser.of("example.com/a.pdf?x=1"))).containsExactly(3);
+        assertThat(classifier.classify(UrlParser.of("example.com"))).isEmpty();
+    }
+
+    @Test
+    void reportSharedCategoriesOnce() {
+        UrlClassifier classifier = new UrlClassifier()
+            .register(UrlComponent.HOST, "shop", 7)
+            .register(UrlComponent.HOST, "store", 7);
+
+        assertThat(classifier.classify(UrlComponent.HOST, "shop.store.com")).containsExactly(7);
+    }
+
+    @Test
+    void matchIgnoringCase() {
+        UrlClassifier classifier = new UrlClassifier()
+            .register(UrlComponent.PATH, "(?i)/login[^/]*$", 1);
+
+        assertThat(classifier.classify(UrlComponent.PATH, "/users/LogIn.php")).containsExactly(1);
+        assertThat(classifier.classify(UrlComponent.PATH, "/login/other")).isEmpty();
+    }
+
+    @Test
+    void findSameMatchesAsJavaRegex() {
+        String[] patterns = {"a+b", "^ab*c$", "(ab|cd){2}", "x{2,3}y", "[^a-c]z", "\\w+@\\w+", "colou?r", "^$", "a.c", "(a|b)*abb"};
+        String[] inputs = {"", "aab", "abbbc", "ac", "abcd", "cdab", "xxy", "xy", "xxxxy", "dz", "az", "me@host", "color", "colour", "a\nc", "abc", "babb"};
+
+        UrlClassifier classifier = new UrlClassifier(3);
+        for (int i = 0; i < patterns.length; i++) {
+            classifier.register(UrlComponent.PATH, patterns[i], i);
+        }
+
+        for (String input : inputs) {
+            int[] expected = IntStream.range(0, patterns.length)
+                .filter(i -> Pattern.compile(patterns[i]).matcher(input).find())
+                .toArray();
+            assertThat(classifier.classify(UrlComponent.PATH, input)).as(input).containsExactly(expected);
+        }
+    }
+
+    @Test
+    void rejectInvalidPatterns() {
+        UrlClassifier classifier = new UrlClassifier();
+
+        for (String invalid : asList("(a", "a)", "[a", "*a", "a{3,1}", "\\q")) {
+            assertThatThrownBy(() -> classifier.register(UrlComponent.HOST, invalid, 1))
+                .as(invalid)
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.alturkovic.url.UrlInterner.Component.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlInternerShould {
+
+    @Test
+    void shareComponentValuesBetweenParsedUrls() {
+        UrlInterner interner = new UrlInterner(100);
+
+        UrlBuilder first = UrlBuilder.of("example.com/api/v1;ver=1?utm_source=a", interner);
+        UrlBuilder second = UrlBuilder.of("example.com/api/v2;ver=2?utm_source=b", interner);
+
+        assertThat(second.getHost().build()).isSameAs(first.getHost().build());
+        assertThat(second.getPath().getPathSegments().get(0).getPath())
+            .isSameAs(first.getPath().getPathSegments().get(0).getPath());
+        assertThat(firstName(second.getPath().getPathSegments().get(1).getParameters()))
+            .isSameAs(firstName(first.getPath().getPathSegments().get(1).getParameters()));
+        assertThat(firstName(second.getQuery())).isSameAs(firstName(first.getQuery()));
+    }
+
+    @Test
+    void shareSegmentsBetweenDifferentPaths() {
+        UrlInterner interner = new UrlInterner(100);
+
+        UrlBuilder first = UrlBuilder.of("example.com/api/v1/users?a=1", interner);
+        UrlBuilder second = UrlBuilder.of("example.com/api/v2/orders?a=2", interner);
+
+        assertThat(second.getPath().getSegmentPaths().get(0)).isSameAs(first.getPath().getSegmentPaths().get(0));
+        assertThat(second.getPath().getPathSegments().get(0).getPath()).isSameAs(first.getPath().getSegmentPaths().get(0));
+        assertThat(second.getPath().removeLast().add("items").getSegmentPaths().get(0))
+            .isSameAs(first.getPath().getSegmentPaths().get(0));
+        assertThat(second.getPath().build()).isEqualTo("/api/v2/items");
+    }
+
+    @Test
+    void keepParsedValues() {
+        UrlParser parser = UrlParser.of("user@example.com/a/b;c=d?e=f#g", new UrlInterner(10));
+
+        assertThat(parser).isEqualTo(UrlParser.of("user@example.com/a/b;c=d?e=f#g"));
+    }
+
+    @Test
+    void trackStatisticsPerComponent() {
+        UrlInterner interner = new UrlInterner(100);
+
+        UrlParser.of("example.com/a/b?c=1", interner);
+        UrlParser.of("example.com/a/d?c=2", interner);
+
+        assertThat(interner.size(HOST)).isEqualTo(1);
+        assertThat(interner.hitCount(HOST)).isEqualTo(1);
+        assertThat(interner.size(PATH_SEGMENT)).isEqualTo(3);
+        assertThat(interner.hitCount(PATH_SEGMENT)).isEqualTo(1);
+        assertThat(interner.missCount(PARAMETER_NAME)).isEqualTo(1);
+        assertThat(interner.hitRate(PARAMETER_NAME)).isEqualTo(0.5);
+    }
+
+    private static String firstName(ParameterBuilder parameters) {
+        List<String> names = new ArrayList<>();
+        parameters.forEach((name, value) -> names.add(name));
+        return names.get(0);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.github.alturkovic.url.NormalizationStep.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class UrlNormalizerShould {
+
+    @Test
+    void applyAllSteps() {
+        assertThat(UrlNormalizer.all().normalize("HTTP://User@WWW.Example.COM:80/a/./b/../%7euser/?b=2&&a=%c3%bc&a=1#top"))
+            .isEqualTo("http://User@example.com/a/~user?a=%C3%BC&a=1&b=2");
+    }
+
+    @Test
+    void applyOnlyConfiguredSteps() {
+        String url = "HTTP://WWW.Example.COM:80/a/../b/?b=1&a=2#top";
+
+        assertThat(UrlNormalizer.of().normalize(url)).isEqualTo(url);
+        assertThat(UrlNormalizer.of(LOWERCASE_PROTOCOL, LOWERCASE_HOST).normalize(url))
+            .isEqualTo("http://www.example.com:80/a/../b/?b=1&a=2#top");
+        assertThat(UrlNormalizer.of(REMOVE_WWW, REMOVE_DEFAULT_PORT, REMOVE_FRAGMENT).normalize(url))
+            .isEqualTo("HTTP://Example.COM/a/../b/?b=1&a=2");
+        assertThat(UrlNormalizer.of(REMOVE_DOT_SEGMENTS, REMOVE_TRAILING_SLASH, SORT_QUERY_PARAMETERS).normalize(url))
+            .isEqualTo("HTTP://WWW.Example.COM:80/b?a=2&b=1#top");
+    }
+
+    @Test
+    void removeDotSegments() {
+        UrlNormalizer normalizer = UrlNormalizer.of(REMOVE_DOT_SEGMENTS);
+
+        assertThat(normalizer.normalize("http://a.com/a/b/c/./../../g")).isEqualTo("http://a.com/a/g");
+        assertThat(normalizer.normalize("http://a.com/../a")).isEqualTo("http://a.com/a");
+        assertThat(normalizer.normalize("http://a.com/a/..")).isEqualTo("http://a.com/");
+        assertThat(normalizer.normalize("http://a.com/a/.")).isEqualTo("http://a.com/a/");
+        assertThat(normalizer.normalize("http://a.com/a/.b/..c")).isEqualTo("http://a.com/a/.b/..c");
+        assertThat(UrlNormalizer.of(REMOVE_DOT_SEGMENTS, DECODE_UNRESERVED_CHARACTERS).normalize("http://a.com/a/%2e%2E/b"))
+            .isEqualTo("http://a.com/b");
+    }
+
+    @Test
+    void normalizePercentEncoding() {
+        assertThat(UrlNormalizer.of(UPPERCASE_PERCENT_ENCODING).normalize("a.com/%7e/%2f?q=%e2%82%ac#%3a"))
+            .isEqualTo("a.com/%7E/%2F?q=%E2%82%AC#%3A");
+        assertThat(UrlNormalizer.of(DECODE_UNRESERVED_CHARACTERS).normalize("a.com/%7e%41%2f?q=%2D%20"))
+            .isEqualTo("a.com/~A%2f?q=-%20");
+        assertThat(UrlNormalizer.of(UPPERCASE_PERCENT_ENCODING).normalize("a.com/%zz/%a"))
+            .isEqualTo("a.com/%zz/%a");
+    }
+
+    @Test
+    void keepOnlyNonDefaultPorts() {
+        UrlNormalizer normalizer = UrlNormalizer.of(REMOVE_DEFAULT_PORT);
+
+        assertThat(normalizer.normalize("https://a.com:443/")).isEqualTo("https://a.com/");
+        assertThat(normalizer.normalize("https://a.com:80/")).isEqualTo("https://a.com:80/");
+        assertThat(normalizer.normalize("http://a.com:/")).isEqualTo("http://a.com/");
+        assertThat(normalizer.normalize("http://[::1]:80/")).isEqualTo("http://[::1]/");
+        assertThat(normalizer.normalize("a.com:80/")).isEqualTo("a.com:80/");
+    }
+
+    @Test
+    void sortQueryParametersStably() {
+        UrlNormalizer normalizer = UrlNormalizer.of(SORT_QUERY_PARAMETERS);
+
+        assertThat(normalizer.normalize("a.com?c=3&a=2&b&a=1")).isEqualTo("a.com?a=2&a=1&b&c=3");
+        assertThat(normalizer.normalize("a.com?ab=1&a=2")).isEqualTo("a.com?a=2&ab=1");
+        assertThat(normalizer.normalize("a.com?&&")).isEqualTo("a.com");
+    }
+
+    @Test
+    void sortLongQueries() {
+        UrlNormalizer normalizer = UrlNormalizer.of(SORT_QUERY_PARAMETERS);
+        StringBuilder reversed = new StringBuilder("a.com?");
+        StringBuilder sorted = new StringBuilder("a.com?");
+        for (int i = 0; i < 20_000; i++) {
+            reversed.append(i == 0 ? "" : "&").append(String.format("p%05d=%d", 19_999 - i, i));
+            sorted.append(i == 0 ? "" : "&").append(String.format("p%05d=%d", i, 19_999 - i));
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () ->
+            assertThat(normalizer.normalize(reversed.toString())).isEqualTo(sorted.toString()));
+    }
+
+    @Test
+    void appendToReusedBuffer() {
+        UrlNormalizer normalizer = UrlNormalizer.of(LOWERCASE_HOST);
+        StringBuilder output = new StringBuilder();
+
+        normalizer.normalize("http://A.com", output).append(' ');
+        normalizer.normalize("/Path?Q", output);
+
+        assertThat(output).hasToString("http://a.com /Path?Q");
+        assertThat(normalizer.getSteps()).containsExactly(LOWERCASE_HOST);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UrlParserCacheShould {
+
+    @Test
+    void reuseParsedUrls() {
+        UrlParserCache cache = new UrlParserCache(10);
+
+        UrlParser parser = cache.parse("example.com/a?b=c");
+
+        assertThat(cache.parse("example.com/a?b=c")).isSameAs(parser);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitRate()).isCloseTo(0.5, within(0.001));
+    }
+
+    @Test
+    void provideIndependentBuilders() {
+        UrlParserCache cache = new UrlParserCache(10);
+
+        cache.builder("example.com/a").path(path -> path.add("b"));
+
+        assertThat(cache.builder("example.com/a").build()).hasToString("https://example.com/a");
+        assertThat(cache.parse("example.com/a").getPath()).hasValue("/a");
+    }
+
+    @Test
+    void stayWithinMaximumSize() {
+        UrlParserCache cache = new UrlParserCache(50);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.parse("example.com/" + i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void keepFrequentUrlsDuringScans() {
+        UrlParserCache cache = new UrlParserCache(100);
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 20; i++) {
+                cache.parse("popular.com/" + i);
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            cache.parse("one-off.com/" + i);
+        }
+
+        long misses = cache.missCount();
+        for (int i = 0; i < 20; i++) {
+            cache.parse("popular.com/" + i);
+        }
+        assertThat(cache.missCount()).isEqualTo(misses);
+    }
+
+    @Test
+    void readSharedParsersFromMultipleThreads() throws Exception {
+        List<String> urls = asList(
+            "example.com/a/b/c?x=1&y=2&x=3",
+            "example.com/a;v=1;w/b/c;z=2?x=1&x&y=2#f",
+            "example.com/./a/../b?q=%20"
+        );
+        int threads = 8;
+
+        for (int round = 0; round < 50; round++) {
+            UrlParserCache cache = new UrlParserCache(10);
+            urls.forEach(cache::parse);
+
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<List<String>>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        List<String> read = new ArrayList<>();
+                        for (String url : urls) {
+                            read.add(describe(cache.parse(url)));
+                        }
+                        return read;
+                    }));
+                }
+                start.countDown();
+
+                for (Future<List<String>> result : results) {
+                    for (int i = 0; i < urls.size(); i++) {
+                        assertThat(result.get().get(i)).isEqualTo(describe(UrlParser.of(urls.get(i))));
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static String describe(UrlParser parser) {
+        return String.join("|",
+            parser.getHost(),
+            parser.getPath().orElse(""),
+            parser.getPathSegments().toString(),
+            matrixParameters(parser, asList("a")),
+            matrixParameters(parser, asList("a", "b", "c")),
+            parser.getQuery().orElse(""),
+            parser.getQueryParameters().toString(),
+            parser.getQueryParameters("x").toString(),
+            parser.asBuilder().build().toString()
+        );
+    }
+
+    private static String matrixParameters(UrlParser parser, List<String> path) {
+        try {
+            return parser.getMatrixParameters(path).toString();
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+}
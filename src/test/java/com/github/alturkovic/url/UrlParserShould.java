@@ -27,13 +27,16 @@ package com.github.alturkovic.url;
 import org.junit.jupiter.api.Test;
 
 import java.util.AbstractMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class UrlParserShould {
 
@@ -279,4 +282,57 @@ class UrlParserShould {
         assertThat(UrlParser.of("localhost:8080/file?q=1").getFileType())
             .isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void resetToAnotherUrl() {
+        UrlParser parser = UrlParser.of("example.com/a?b=c");
+
+        assertThat(parser.reset("localhost.com:8080/d").getHost()).isEqualTo("localhost.com");
+        assertThat(parser.getPort()).isEqualTo(8080);
+        assertThat(parser.getPath()).hasValue("/d");
+        assertThat(parser.getQuery()).isEmpty();
+    }
+
+    @Test
+    void notResetSharedParser() {
+        UrlParser parser = new UrlParserCache(10).parse("example.com");
+
+        assertThatThrownBy(() -> parser.reset("localhost.com")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectMatrixParametersForUnmatchedPath() {
+        UrlParser parser = UrlParser.of("localhost:8080/first;a=1/second;b=2");
+
+        assertThatThrownBy(() -> parser.getMatrixParameters("first/third")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parser.getMatrixParameters(asList("first", "second", "third")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(parser.getMatrixParameters(asList("first"))).isInstanceOf(HashMap.class).containsOnlyKeys("a");
+        assertThat(parser.getMatrixParameters(emptyList())).isInstanceOf(HashMap.class).isEmpty();
+        assertThat(UrlParser.of("localhost:8080/first").getMatrixParameters("first")).isInstanceOf(HashMap.class).isEmpty();
+    }
+
+    @Test
+    void normalizePathWhenParsing() {
+        assertThat(UrlParser.of("example.com/a/./b/../c", ParseOption.REMOVE_DOT_SEGMENTS).getPath()).hasValue("/a/c");
+        assertThat(UrlParser.of("example.com//a/.//c?d=1", ParseOption.REMOVE_DOT_AND_EMPTY_SEGMENTS).getPath()).hasValue("/a/c");
+        assertThat(UrlParser.of("example.com/a/./b/../c", ParseOption.REMOVE_DOT_SEGMENTS))
+            .isEqualTo(UrlParser.of("example.com/a/c"));
+    }
+
+    @Test
+    void convertHostWhenParsing() {
+        assertThat(UrlParser.of("https://bücher.de/a", ParseOption.ASCII_HOST).getHost()).isEqualTo("xn--bcher-kva.de");
+        assertThat(UrlParser.of("https://xn--bcher-kva.de/a", ParseOption.UNICODE_HOST).getHost()).isEqualTo("bücher.de");
+        assertThat(UrlParser.of("https://bücher.de/a", ParseOption.ASCII_HOST))
+            .isEqualTo(UrlParser.of("https://xn--bcher-kva.de/a"));
+    }
+
+    @Test
+    void getRegistrableDomain() {
+        UrlParser parser = UrlParser.of("https://user@news.bbc.co.uk:8080/a");
+
+        assertThat(parser.getPublicSuffix()).hasValue("co.uk");
+        assertThat(parser.getRegistrableDomain()).hasValue("bbc.co.uk");
+    }
+}
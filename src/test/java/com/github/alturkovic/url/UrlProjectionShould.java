@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UrlProjectionShould {
+
+    @Test
+    void extractRequestedComponents() {
+        UrlProjection projection = new UrlProjection()
+            .component(UrlComponent.HOST)
+            .component(UrlComponent.PATH);
+
+        ProjectionResult result = projection.project("https://user@example.com:8080/a/b?c=d#e");
+
+        assertThat(result.get(UrlComponent.HOST)).hasToString("example.com");
+        assertThat(result.getStart(UrlComponent.PATH)).isEqualTo(29);
+        assertThat(result.get(UrlComponent.PATH)).hasToString("/a/b");
+        assertThat(result.has(UrlComponent.QUERY)).isFalse();
+        assertThat(result.get(UrlComponent.FRAGMENT)).isNull();
+    }
+
+    @Test
+    void extractAllComponents() {
+        UrlProjection projection = new UrlProjection();
+        for (UrlComponent component : UrlComponent.values()) {
+            projection.component(component);
+        }
+
+        ProjectionResult result = projection.project("example.com?q#f");
+        assertThat(result.get(UrlComponent.HOST)).hasToString("example.com");
+        assertThat(result.has(UrlComponent.PATH)).isFalse();
+        assertThat(result.get(UrlComponent.QUERY)).hasToString("q");
+        assertThat(result.get(UrlComponent.FRAGMENT)).hasToString("f");
+
+        projection.project("/a/b#", result);
+        assertThat(result.has(UrlComponent.HOST)).isFalse();
+        assertThat(result.get(UrlComponent.PATH)).hasToString("/a/b");
+        assertThat(result.get(UrlComponent.FRAGMENT)).hasToString("");
+
+        projection.project("http://[::1]:80", result);
+        assertThat(result.get(UrlComponent.HOST)).hasToString("[::1]");
+    }
+
+    @Test
+    void extractFirstRequestedParameters() {
+        UrlProjection projection = new UrlProjection()
+            .parameter("event")
+            .parameter("id")
+            .parameter("flag")
+            .parameter("missing");
+
+        ProjectionResult result = projection.newResult();
+        String url = "https://beacon.example.com/c?ignored=1&id=42&event=click%20now&id=43&flag&ide=7#id=8";
+        projection.project(url, result);
+
+        assertThat(result.getParameterCount()).isEqualTo(4);
+        assertThat(result.getParameterName(1)).isEqualTo("id");
+        assertThat(result.getParameter("id")).hasToString("42");
+        assertThat(result.getParameter(0)).hasToString("click%20now");
+        assertThat(result.getDecodedParameter(0)).isEqualTo("click now");
+        assertThat(result.getParameter("flag")).hasToString("");
+        assertThat(result.hasParameter(3)).isFalse();
+        assertThat(result.getParameter("unknown")).isNull();
+        assertThat(result.getUrl()).isSameAs(url);
+
+        projection.project("https://beacon.example.com/c", result);
+        assertThat(result.hasParameter(1)).isFalse();
+    }
+
+    @Test
+    void rejectInvalidParameters() {
+        UrlProjection projection = new UrlProjection().parameter("id");
+
+        assertThatThrownBy(() -> projection.parameter("id")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> projection.parameter(" ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> projection.newResult().getParameterStart(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.alturkovic.url;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UrlSharderShould {
+
+    @Test
+    void hashNormalizedHost() {
+        UrlSharder sharder = UrlSharder.byHost(48);
+        long hash = sharder.hash("example.com");
+
+        assertThat(hash).isEqualTo(0x576846634e2714c6L);
+        assertThat(sharder.hash("https://WWW.Example.com./a?b#c")).isEqualTo(hash);
+        assertThat(sharder.hash("//user:pass@example.com:8080")).isEqualTo(hash);
+        assertThat(sharder.hash("example.com:8080/a")).isEqualTo(hash);
+        assertThat(sharder.hash(UrlParser.of("http://www.example.com/a"))).isEqualTo(hash);
+        assertThat(sharder.hash("http://news.example.com")).isNotEqualTo(hash);
+        assertThat(sharder.hash("www.com")).isNotEqualTo(sharder.hash("com"));
+    }
+
+    @Test
+    void removeWwwLikeHostBuilder() {
+        UrlSharder sharder = UrlSharder.byHost(48);
+
+        for (String host : asList("www.example.com", "WWW.example.com", "www.com", "wwww.example.com", "www2.example.com")) {
+            assertThat(sharder.hash(host)).as(host).isEqualTo(sharder.hash(HostBuilder.of(host).withoutWww().build()));
+        }
+    }
+
+    @Test
+    void hashUnicodeHostAsUtf8() {
+        UrlSharder sharder = UrlSharder.byHost(48);
+
+        assertThat(sharder.hash("https://BÜCHER.de")).isEqualTo(sharder.hash("bücher.de"));
+        assertThat(sharder.hash("bücher.de")).isNotEqualTo(sharder.hash("bcher.de"));
+    }
+
+    @Test
+    void hashRegistrableDomain() {
+        UrlSharder sharder = UrlSharder.byRegistrableDomain(48);
+
+        assertThat(sharder.hash("https://news.bbc.co.uk/a")).isEqualTo(sharder.hash("bbc.co.uk"));
+        assertThat(sharder.hash("https://NEWS.BBC.CO.UK/a")).isEqualTo(sharder.hash("bbc.co.uk"));
+        assertThat(sharder.hash("https://www.bbc.co.uk/a")).isEqualTo(UrlSharder.byHost(48).hash("bbc.co.uk"));
+        assertThat(sharder.hash("http://[::1]:8080")).isEqualTo(UrlSharder.byHost(48).hash("[::1]"));
+        assertThat(sharder.hash("co.uk")).isEqualTo(UrlSharder.byHost(48).hash("co.uk"));
+    }
+
+    @Test
+    void assignShardsConsistently() {
+        UrlSharder small = UrlSharder.byHost(48);
+        UrlSharder large = UrlSharder.byHost(49);
+
+        int[] counts = new int[48];
+        int moved = 0;
+        for (int i = 0; i < 10000; i++) {
+            String url = "https://host" + i + ".example.com/path";
+            int shard = small.shard(url);
+            counts[shard]++;
+            int grown = large.shard(url);
+            if (grown != shard) {
+                assertThat(grown).isEqualTo(48);
+                moved++;
+            }
+        }
+
+        for (int count : counts) {
+            assertThat(count).isBetween(100, 320);
+        }
+        assertThat(moved).isBetween(100, 320);
+        assertThat(UrlSharder.byHost(1).shard("example.com")).isZero();
+    }
+
+    @Test
+    void rejectInvalidShardCount() {
+        assertThatThrownBy(() -> UrlSharder.byHost(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}